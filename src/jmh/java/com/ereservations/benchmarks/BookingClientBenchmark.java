@@ -0,0 +1,158 @@
+package com.ereservations.benchmarks;
+
+import com.ereservations.api.BaseApiClient;
+import com.ereservations.api.BookingApiClient;
+import com.ereservations.api.ResponseDecoder;
+import com.ereservations.models.Booking;
+import com.ereservations.models.BookingResult;
+import com.ereservations.schema.CompiledSchema;
+import com.ereservations.schema.ResponseSchemas;
+import com.ereservations.stub.RestfulBookerStubServer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Client hot-path benchmarks against the embedded stub on loopback, so the numbers reflect
+ * client-side cost only. Run with {@code mvn -Pjmh test-compile exec:exec}; allocation rates
+ * come from the {@code -prof gc} profiler enabled by the profile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+public class BookingClientBenchmark {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final ObjectWriter bookingWriter = objectMapper.writerFor(Booking.class);
+
+    private RestfulBookerStubServer stubServer;
+    private ClientInternals internals;
+    private BookingApiClient client;
+    private JsonNode bookingNode;
+    private Booking booking;
+    private int bookingId;
+    private String bookingBody;
+    private String createdBody;
+    private Response bookingResponse;
+    private CompiledSchema bookingSchema;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        stubServer = RestfulBookerStubServer.start(0);
+        System.setProperty("base.url", stubServer.getBaseUrl());
+        // Stub IDs must not be journaled for teardown, and journaling would be measured in the create path
+        System.setProperty("cleanup.enabled", "false");
+        internals = new ClientInternals();
+        client = new BookingApiClient();
+
+        bookingNode = objectMapper.readTree(BookingClientBenchmark.class.getResourceAsStream("/test-data/create_booking.json"));
+        booking = objectMapper.treeToValue(bookingNode, Booking.class);
+
+        BookingResult created = client.createBooking(bookingNode);
+        bookingId = created.getBookingId();
+        createdBody = created.getBody();
+        bookingResponse = given().spec(internals.spec()).get("/booking/" + bookingId);
+        bookingBody = bookingResponse.getBody().asString();
+        bookingSchema = ResponseSchemas.get(ResponseSchemas.BOOKING);
+    }
+
+    // createBookingRoundTrip stores a booking per call; without this later iterations would measure map growth and GC
+    @TearDown(Level.Iteration)
+    public void dropCreatedBookings() {
+        stubServer.retainBookings(bookingId);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        stubServer.stop();
+    }
+
+    @Benchmark
+    public RequestSpecification buildRequest() {
+        return given()
+                .spec(internals.spec())
+                .body(bookingBody);
+    }
+
+    @Benchmark
+    public String serializeJsonNodeToString() {
+        return bookingNode.toString();
+    }
+
+    @Benchmark
+    public String serializeBookingWithWriter() throws IOException {
+        return bookingWriter.writeValueAsString(booking);
+    }
+
+    @Benchmark
+    public Booking decodeBooking() {
+        return ResponseDecoder.readBooking(bookingBody);
+    }
+
+    @Benchmark
+    public Integer decodeCreatedBooking() {
+        return ResponseDecoder.readBookingResponse(createdBody).getBookingId();
+    }
+
+    @Benchmark
+    public String decodeWithJsonPath() {
+        return new JsonPath(bookingBody).getString("firstname");
+    }
+
+    @Benchmark
+    public List<String> validateBookingSchema() {
+        return bookingSchema.validate(bookingBody);
+    }
+
+    @Benchmark
+    public Response validateResponse() {
+        internals.validate(bookingResponse, 200);
+        return bookingResponse;
+    }
+
+    @Benchmark
+    public BookingResult getBookingRoundTrip() {
+        return client.getBooking(bookingId);
+    }
+
+    @Benchmark
+    public BookingResult createBookingRoundTrip() {
+        return client.createBooking(bookingNode);
+    }
+
+    /**
+     * Exposes the protected request spec and validation of {@link BaseApiClient} to the benchmarks.
+     */
+    static class ClientInternals extends BaseApiClient {
+        RequestSpecification spec() {
+            return getRequestSpecification();
+        }
+
+        void validate(Response response, int expectedStatusCode) {
+            validateResponse(response, expectedStatusCode);
+        }
+    }
+}
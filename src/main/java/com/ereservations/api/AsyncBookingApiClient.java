@@ -0,0 +1,337 @@
+package com.ereservations.api;
+
+import com.ereservations.data.CreatedBookingTracker;
+import com.ereservations.metrics.LatencyRegistry;
+import com.ereservations.models.Booking;
+import com.ereservations.models.BookingResponse;
+import com.ereservations.models.BookingResult;
+import com.ereservations.models.BulkResult;
+import com.ereservations.schema.ResponseSchemas;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Non-blocking counterpart of {@link BookingApiClient}. Requests are issued through the JDK
+ * {@link HttpClient}, so no thread is parked while a call is in flight and a single JVM can keep
+ * thousands of bookings outstanding. Base URL and credentials come from the same configuration
+ * loaded by {@link BaseApiClient}, and the auth token is the shared single-flight one of
+ * {@link BaseApiClient#getAuthTokenManager()}, so any number of clients fetch and refresh it once.
+ *
+ * <p>Calls go through the shared {@link ResilientExecutor} and latency registry, but not through the
+ * RestAssured filter chain: cassette recording and replay, the ring-buffer exchange log and the
+ * response cache do not apply to them (writes still invalidate cached reads). Under a replaying
+ * cassette this client reaches the network.
+ *
+ * <p>The bulk operations pipeline many calls over the same client while never having more than
+ * {@code bulk.concurrency} requests outstanding; the caller blocks until the whole batch is done.
+ */
+public class AsyncBookingApiClient extends BaseApiClient {
+    private static final Logger log = LoggerFactory.getLogger(AsyncBookingApiClient.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final ObjectWriter bookingWriter = objectMapper.writerFor(Booking.class);
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final int bulkConcurrency;
+
+    public AsyncBookingApiClient() {
+        this(HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(requestTimeouts.getDefaultConnectMillis()))
+                .build());
+    }
+
+    public AsyncBookingApiClient(HttpClient httpClient) {
+        this.httpClient = httpClient;
+        this.baseUrl = getBaseUrl();
+        if (isReplaying()) {
+            log.warn("Responses are replayed from a cassette, but the async client always calls {}", baseUrl);
+        }
+        this.bulkConcurrency = Integer.parseInt(getConfigProperty("bulk.concurrency", "32"));
+    }
+
+    public CompletableFuture<BookingResult> createBooking(JsonNode bookingData) {
+        log.debug("Creating new booking with data: {}", bookingData);
+        return postBooking(bookingData.toString());
+    }
+
+    public CompletableFuture<BookingResult> createBooking(Booking booking) {
+        try {
+            return postBooking(bookingWriter.writeValueAsString(booking));
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public CompletableFuture<BookingResult> getBooking(int bookingId) {
+        log.debug("Retrieving booking with ID: {}", bookingId);
+        return send(newRequest("/booking/" + bookingId).GET(), 200, ResponseSchemas.BOOKING, currentDeadline());
+    }
+
+    public CompletableFuture<BookingResult> updateBooking(int bookingId, JsonNode bookingData) {
+        log.debug("Updating booking with ID: {} with data: {}", bookingId, bookingData);
+        // The token fetch and the update share one deadline
+        Deadline deadline = currentDeadline();
+        return authTokenManager.getTokenAsync()
+                .orTimeout(deadline.remainingMillis(), TimeUnit.MILLISECONDS)
+                .thenCompose(token -> send(newRequest("/booking/" + bookingId)
+                        .header("Cookie", "token=" + token)
+                        .PUT(HttpRequest.BodyPublishers.ofString(bookingData.toString())), 200, ResponseSchemas.BOOKING, deadline))
+                .whenComplete((result, error) -> {
+                    invalidateTokenIfForbidden(error);
+                    invalidateCached(bookingId);
+                });
+    }
+
+    public CompletableFuture<BookingResult> deleteBooking(int bookingId) {
+        log.debug("Deleting booking with ID: {}", bookingId);
+        Deadline deadline = currentDeadline();
+        return authTokenManager.getTokenAsync()
+                .orTimeout(deadline.remainingMillis(), TimeUnit.MILLISECONDS)
+                .thenCompose(token -> send(newRequest("/booking/" + bookingId)
+                        .header("Cookie", "token=" + token)
+                        .DELETE(), 201, null, deadline))
+                .whenComplete((result, error) -> {
+                    invalidateTokenIfForbidden(error);
+                    invalidateCached(bookingId);
+                    if (error == null) {
+                        trackDeleted(bookingId);
+                    }
+                });
+    }
+
+    public CompletableFuture<BookingResult> getBookingIds() {
+        log.debug("Retrieving all booking IDs");
+        return send(newRequest("/booking").GET(), 200, ResponseSchemas.BOOKING_IDS, currentDeadline());
+    }
+
+    public BulkResult createBookings(Stream<Booking> bookings) {
+        return createBookings(bookings, bulkConcurrency);
+    }
+
+    public BulkResult createBookings(Stream<Booking> bookings, int concurrency) {
+        log.info("Creating bookings in bulk with concurrency {}", concurrency);
+        return runBulk(bookings.map(booking -> () -> createBooking(booking)), concurrency, 0);
+    }
+
+    public BulkResult deleteBookings(int[] bookingIds) {
+        return deleteBookings(bookingIds, bulkConcurrency);
+    }
+
+    public BulkResult deleteBookings(int[] bookingIds, int concurrency) {
+        log.info("Deleting {} bookings in bulk with concurrency {}", bookingIds.length, concurrency);
+        return runBulk(Arrays.stream(bookingIds).mapToObj(id -> () -> deleteBooking(id)), concurrency, 0);
+    }
+
+    /**
+     * Deletes every booking still in {@link #getCreatedBookings()}, with at most
+     * {@code cleanup.concurrency} requests in flight and no more than {@code cleanup.rate.per.sec}
+     * started per second, so teardown does not hammer a shared host. Bookings that are already gone
+     * (404/405) are dropped from the tracker; other failures stay for the next teardown.
+     */
+    public BulkResult deleteTrackedBookings() {
+        CreatedBookingTracker tracker = getCreatedBookings();
+        int[] bookingIds = tracker != null ? tracker.toArray() : new int[0];
+        if (bookingIds.length == 0) {
+            return BulkResult.builder().build();
+        }
+        if (!tracker.getBaseUrl().equals(baseUrl)) {
+            throw new IllegalStateException("Tracked bookings belong to " + tracker.getBaseUrl()
+                    + ", not to this client's host " + baseUrl);
+        }
+        int concurrency = Integer.parseInt(getConfigProperty("cleanup.concurrency", "8"));
+        double ratePerSecond = Double.parseDouble(getConfigProperty("cleanup.rate.per.sec", "20"));
+        log.info("Tearing down {} created bookings with concurrency {} at up to {}/s",
+                bookingIds.length, concurrency, ratePerSecond);
+        BulkResult result = runBulk(Arrays.stream(bookingIds).mapToObj(id -> () -> deleteTracked(tracker, id)),
+                concurrency, ratePerSecond > 0 ? (long) (1e9 / ratePerSecond) : 0);
+        if (tracker.size() > 0) {
+            log.warn("{} bookings could not be deleted and remain in {}", tracker.size(), tracker.getJournal());
+        }
+        return result;
+    }
+
+    // A 403 on an authenticated call means the cached token is no longer accepted
+    private void invalidateTokenIfForbidden(Throwable error) {
+        Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+        if (cause instanceof UnexpectedStatusException && ((UnexpectedStatusException) cause).getStatusCode() == 403) {
+            log.warn("Authenticated call was rejected with 403; invalidating the cached auth token");
+            authTokenManager.invalidate();
+        }
+    }
+
+    private CompletableFuture<BookingResult> deleteTracked(CreatedBookingTracker tracker, int bookingId) {
+        return deleteBooking(bookingId).whenComplete((result, error) -> {
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            if (cause instanceof UnexpectedStatusException) {
+                int status = ((UnexpectedStatusException) cause).getStatusCode();
+                // Restful-Booker answers 405 for an ID that no longer exists
+                if (status == 404 || status == 405) {
+                    tracker.remove(bookingId);
+                }
+            }
+        });
+    }
+
+    // intervalNanos > 0 also spaces out request starts, i.e. caps the rate at 1e9 / intervalNanos per second
+    private BulkResult runBulk(Stream<Supplier<CompletableFuture<BookingResult>>> operations, int concurrency,
+                               long intervalNanos) {
+        if (concurrency < 1) {
+            // A semaphore with no permits would block the first acquire forever
+            throw new IllegalArgumentException("Bulk concurrency must be at least 1: " + concurrency);
+        }
+        Semaphore permits = new Semaphore(concurrency);
+        Queue<BulkResult.Item> items = new ConcurrentLinkedQueue<>();
+        long start = System.nanoTime();
+        long nextStart = start;
+        int index = 0;
+
+        for (Supplier<CompletableFuture<BookingResult>> operation : (Iterable<Supplier<CompletableFuture<BookingResult>>>) operations::iterator) {
+            // Backpressure: the stream is only pulled once a request slot is free
+            permits.acquireUninterruptibly();
+            if (intervalNanos > 0) {
+                LockSupport.parkNanos(nextStart - System.nanoTime());
+                nextStart = Math.max(nextStart + intervalNanos, System.nanoTime());
+            }
+            int itemIndex = index++;
+            long issued = System.nanoTime();
+            CompletableFuture<BookingResult> call;
+            try {
+                call = operation.get();
+            } catch (RuntimeException e) {
+                call = CompletableFuture.failedFuture(e);
+            }
+            call.whenComplete((result, error) -> {
+                BulkResult.Item.ItemBuilder item = BulkResult.Item.builder()
+                        .index(itemIndex)
+                        .latencyMillis((System.nanoTime() - issued) / 1_000_000);
+                if (error != null) {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    item.error(cause.getMessage() == null ? cause.toString() : cause.getMessage());
+                } else {
+                    item.statusCode(result.getStatusCode()).bookingId(result.getBookingId());
+                }
+                items.add(item.build());
+                permits.release();
+            });
+        }
+        permits.acquireUninterruptibly(concurrency);
+
+        List<BulkResult.Item> ordered = new ArrayList<>(items);
+        ordered.sort(Comparator.comparingInt(BulkResult.Item::getIndex));
+        BulkResult result = BulkResult.builder()
+                .items(ordered)
+                .elapsedMillis((System.nanoTime() - start) / 1_000_000)
+                .build();
+        log.info("Bulk operation finished: {} succeeded, {} failed in {} ms ({} ops/s)",
+                result.getSuccessCount(), result.getFailureCount(), result.getElapsedMillis(),
+                String.format("%.1f", result.getThroughputPerSecond()));
+        return result;
+    }
+
+    private CompletableFuture<BookingResult> postBooking(String body) {
+        return send(newRequest("/booking").POST(HttpRequest.BodyPublishers.ofString(body)),
+                200, ResponseSchemas.BOOKING_RESPONSE, currentDeadline())
+                .whenComplete((result, error) -> {
+                    if (error == null) {
+                        trackCreated(result.getBookingId());
+                    }
+                });
+    }
+
+    private HttpRequest.Builder newRequest(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json");
+    }
+
+    private static Deadline currentDeadline() {
+        return Deadline.currentOr(requestTimeouts.getDefaultDeadlineMillis());
+    }
+
+    // schemaName may be null for endpoints whose body is not JSON (e.g. DELETE returns "Created")
+    private CompletableFuture<BookingResult> send(HttpRequest.Builder builder, int expectedStatusCode,
+                                                  String schemaName, Deadline deadline) {
+        HttpRequest template = builder.build();
+        String endpoint = LatencyRegistry.endpointKey(template.method(), template.uri().getPath());
+        // The executor records each attempt's latency; this only times the returned attempt for the result
+        long[] attemptStart = new long[1];
+        return resilience.executeAsync(template.method(), template.uri().getPath(), deadline, () -> {
+                    deadline.check(endpoint);
+                    HttpRequest request = builder
+                            .timeout(Duration.ofMillis(deadline.cap(requestTimeouts.readMillis(endpoint))))
+                            .build();
+                    attemptStart[0] = System.nanoTime();
+                    return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+                }, HttpResponse::statusCode)
+                .thenApply(response -> {
+                    long elapsedMillis = (System.nanoTime() - attemptStart[0]) / 1_000_000;
+                    validateResponse(template, response, expectedStatusCode);
+                    if (schemaName != null) {
+                        validateSchema(schemaName, response.body());
+                    }
+                    return toResult(response, elapsedMillis);
+                });
+    }
+
+    private void validateResponse(HttpRequest request, HttpResponse<String> response, int expectedStatusCode) {
+        if (response.statusCode() != expectedStatusCode) {
+            log.error("API call {} {} failed with status code: {}",
+                    request.method(), request.uri().getPath(), response.statusCode());
+            throw new UnexpectedStatusException(response.statusCode());
+        }
+
+        if (expectedStatusCode == 200 || expectedStatusCode == 201) {
+            String responseBody = response.body();
+            if (responseBody == null || responseBody.isEmpty()) {
+                log.error("Empty response body received");
+                throw new RuntimeException("Empty response body received");
+            }
+        }
+    }
+
+    private static BookingResult toResult(HttpResponse<String> response, long elapsedMillis) {
+        BookingResult.BookingResultBuilder result = BookingResult.builder()
+                .statusCode(response.statusCode())
+                .body(response.body())
+                .responseTimeMillis(elapsedMillis);
+        for (Map.Entry<String, List<String>> header : response.headers().map().entrySet()) {
+            if (!header.getValue().isEmpty()) {
+                result.header(header.getKey(), header.getValue().get(0));
+            }
+        }
+        String method = response.request().method();
+        if (method.equals("POST")) {
+            BookingResponse created = ResponseDecoder.readBookingResponse(response.body());
+            result.bookingId(created.getBookingId()).booking(created.getBooking());
+        } else if (method.equals("PUT") || (method.equals("GET") && !response.uri().getPath().endsWith("/booking"))) {
+            result.booking(ResponseDecoder.readBooking(response.body()));
+        }
+        return result.build();
+    }
+}
@@ -0,0 +1,161 @@
+package com.ereservations.api;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Caches the auth token for concurrent callers. Reads of a valid token are a single volatile load;
+ * when the token is missing, expired or close to expiry exactly one refresh is started and every
+ * caller that needs it waits on the same future. Failed refreshes are never cached. The fetcher must
+ * not block: a refresh-ahead is started by whichever caller sees the token close to expiry, and that
+ * caller still gets the current token immediately.
+ */
+public class AuthTokenManager {
+    private static final Logger log = LoggerFactory.getLogger(AuthTokenManager.class);
+
+    private final Supplier<CompletableFuture<String>> tokenFetcher;
+    private final long ttlMillis;
+    private final long refreshAheadMillis;
+    private final AtomicReference<Token> current = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<Token>> inFlight = new AtomicReference<>();
+
+    private final AtomicLong refreshCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+    private final AtomicLong totalRefreshNanos = new AtomicLong();
+    private final AtomicLong maxRefreshNanos = new AtomicLong();
+
+    public AuthTokenManager(Supplier<CompletableFuture<String>> tokenFetcher, long ttlMillis, long refreshAheadMillis) {
+        this.tokenFetcher = tokenFetcher;
+        this.ttlMillis = ttlMillis;
+        this.refreshAheadMillis = Math.min(refreshAheadMillis, ttlMillis);
+    }
+
+    /**
+     * Returns a valid token, blocking only when no usable token is cached.
+     */
+    public String getToken() {
+        try {
+            return getTokenAsync().join();
+        } catch (CompletionException e) {
+            throw new RuntimeException("Failed to obtain auth token", e.getCause());
+        }
+    }
+
+    /**
+     * Like {@link #getToken()} but gives up after {@code timeoutMillis}, e.g. the time left on a
+     * {@link Deadline}, instead of waiting on a slow refresh indefinitely.
+     */
+    public String getToken(long timeoutMillis) {
+        try {
+            return getTokenAsync().get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new DeadlineExceededException("obtaining auth token");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to obtain auth token", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while obtaining auth token", e);
+        }
+    }
+
+    public CompletableFuture<String> getTokenAsync() {
+        Token token = current.get();
+        long now = System.currentTimeMillis();
+        if (token != null && now < token.expiresAt) {
+            if (now >= token.expiresAt - refreshAheadMillis) {
+                refresh();
+            }
+            return CompletableFuture.completedFuture(token.value);
+        }
+        return refresh().thenApply(refreshed -> refreshed.value);
+    }
+
+    /**
+     * Drops the cached token so the next caller fetches a new one, e.g. after a 403.
+     */
+    public void invalidate() {
+        current.set(null);
+    }
+
+    public long getRefreshCount() {
+        return refreshCount.get();
+    }
+
+    public long getFailureCount() {
+        return failureCount.get();
+    }
+
+    public double getAverageRefreshMillis() {
+        long refreshes = refreshCount.get() + failureCount.get();
+        return refreshes == 0 ? 0 : totalRefreshNanos.get() / 1_000_000.0 / refreshes;
+    }
+
+    public double getMaxRefreshMillis() {
+        return maxRefreshNanos.get() / 1_000_000.0;
+    }
+
+    private CompletableFuture<Token> refresh() {
+        CompletableFuture<Token> pending = inFlight.get();
+        if (pending != null) {
+            return pending;
+        }
+        CompletableFuture<Token> refresh = new CompletableFuture<>();
+        if (!inFlight.compareAndSet(null, refresh)) {
+            pending = inFlight.get();
+            return pending != null ? pending : refresh();
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<String> fetch;
+        try {
+            fetch = tokenFetcher.get();
+        } catch (RuntimeException e) {
+            fetch = CompletableFuture.failedFuture(e);
+        }
+        fetch.whenComplete((value, error) -> {
+            long elapsed = System.nanoTime() - start;
+            totalRefreshNanos.addAndGet(elapsed);
+            maxRefreshNanos.accumulateAndGet(elapsed, Math::max);
+            if (error instanceof CompletionException && error.getCause() != null) {
+                error = error.getCause();
+            }
+            if (error == null && value == null) {
+                error = new IllegalStateException("Auth endpoint returned no token");
+            }
+
+            if (error != null) {
+                failureCount.incrementAndGet();
+                log.error("Auth token refresh failed after {} ms: {}", elapsed / 1_000_000, error.getMessage());
+                inFlight.set(null);
+                refresh.completeExceptionally(error);
+            } else {
+                Token token = new Token(value, System.currentTimeMillis() + ttlMillis);
+                current.set(token);
+                refreshCount.incrementAndGet();
+                log.info("Refreshed auth token in {} ms", elapsed / 1_000_000);
+                inFlight.set(null);
+                refresh.complete(token);
+            }
+        });
+        return refresh;
+    }
+
+    private static class Token {
+        private final String value;
+        private final long expiresAt;
+
+        Token(String value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -1,19 +1,41 @@
 package com.ereservations.api;
 
+import com.ereservations.data.CreatedBookingTracker;
+import com.ereservations.metrics.LatencyRegistry;
+import com.ereservations.models.ApiResult;
+import com.ereservations.models.Booking;
+import com.ereservations.models.BookingResult;
+import com.ereservations.models.CacheStats;
+import com.ereservations.models.ResilienceStats;
+import com.ereservations.schema.ResponseSchemas;
+import com.ereservations.schema.SchemaValidationException;
+import com.ereservations.stub.RestfulBookerStubServer;
+import com.fasterxml.jackson.databind.JsonNode;
 import io.restassured.RestAssured;
 import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.RestAssuredConfig;
 import io.restassured.filter.log.RequestLoggingFilter;
 import io.restassured.filter.log.ResponseLoggingFilter;
 import io.restassured.http.ContentType;
+import io.restassured.http.Header;
 import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
+import org.apache.http.pool.PoolStats;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
 import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
 
 import static io.restassured.RestAssured.given;
 
@@ -21,8 +43,23 @@ public class BaseApiClient {
     protected static final Logger log = LoggerFactory.getLogger(BaseApiClient.class);
     protected static Properties config;
     protected static RequestSpecification requestSpec;
-    private static String authToken;
+    protected static HttpConnectionPool connectionPool;
+    private static RingBufferLoggingFilter exchangeLog;
+    private static CassetteFilter cassette;
+    private static RestfulBookerStubServer stubServer;
+    protected static AuthTokenManager authTokenManager;
+    protected static ResilientExecutor resilience;
+    protected static RequestTimeouts requestTimeouts;
+    protected static ResponseCache responseCache;
+    protected static CreatedBookingTracker createdBookings;
+    private static boolean schemaValidationEnabled;
     private static final long MAX_RESPONSE_TIME = 5000; // 5 seconds in milliseconds
+    // Token fetches run here, so a refresh-ahead never blocks the request that triggered it
+    private static final ExecutorService authExecutor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "auth-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     static {
         try {
@@ -37,15 +74,88 @@ public class BaseApiClient {
                 }
             }
             
-            // Initialize RestAssured
-            RestAssured.baseURI = config.getProperty("base.url");
+            // Initialize RestAssured, optionally against an embedded stub instead of the shared host
+            String baseUrl = System.getProperty("base.url", config.getProperty("base.url"));
+            if (Boolean.parseBoolean(System.getProperty("stub.enabled", config.getProperty("stub.enabled", "false")))) {
+                stubServer = RestfulBookerStubServer.start(Integer.parseInt(config.getProperty("stub.port", "0")),
+                        config.getProperty("auth.username", ""), config.getProperty("auth.password", ""));
+                baseUrl = stubServer.getBaseUrl();
+                Runtime.getRuntime().addShutdownHook(new Thread(stubServer::stop, "stub-server-shutdown"));
+            }
+            RestAssured.baseURI = baseUrl;
             RestAssured.enableLoggingOfRequestAndResponseIfValidationFails();
+
+            // Share keep-alive connections across all clients and threads
+            connectionPool = HttpConnectionPool.fromConfig(config);
+            RestAssured.config = RestAssuredConfig.config().httpClient(connectionPool.httpClientConfig());
+            Runtime.getRuntime().addShutdownHook(new Thread(connectionPool::close, "http-pool-shutdown"));
+
+            // Per-endpoint latency percentiles are written when the JVM exits
+            Path latencyReport = Paths.get(config.getProperty("latency.report.file", "target/latency-report.csv"));
+            Runtime.getRuntime().addShutdownHook(new Thread(
+                    () -> LatencyRegistry.global().writeReport(latencyReport), "latency-report"));
             
-            requestSpec = new RequestSpecBuilder()
-                    .setContentType(ContentType.JSON)
-                    .addFilter(new RequestLoggingFilter())
-                    .addFilter(new ResponseLoggingFilter())
-                    .build();
+            // Connect/read timeouts per endpoint, bounded by a per-flow deadline (test.timeout by default)
+            requestTimeouts = new RequestTimeouts(config);
+
+            RequestSpecBuilder specBuilder = new RequestSpecBuilder()
+                    .setContentType(ContentType.JSON);
+            // Record/replay goes first, so replayed calls never reach the network-facing filters
+            cassette = CassetteFilter.fromConfig(config);
+            if (cassette != null) {
+                specBuilder.addFilter(cassette);
+                if (cassette.getMode() == CassetteFilter.Mode.RECORD) {
+                    Runtime.getRuntime().addShutdownHook(new Thread(cassette::save, "cassette-save"));
+                }
+            }
+            specBuilder.addFilter(new TimeoutFilter())
+                    .addFilter(new LatencyFilter(LatencyRegistry.global()));
+            String logMode = System.getProperty("log.http.mode", config.getProperty("log.http.mode", "failure"));
+            if ("always".equalsIgnoreCase(logMode)) {
+                specBuilder.addFilter(new RequestLoggingFilter())
+                        .addFilter(new ResponseLoggingFilter());
+            } else if ("failure".equalsIgnoreCase(logMode)) {
+                exchangeLog = new RingBufferLoggingFilter(
+                        Integer.parseInt(config.getProperty("log.http.buffer.size", "16")),
+                        Integer.parseInt(config.getProperty("log.http.sample.rate", "0")));
+                specBuilder.addFilter(exchangeLog);
+            }
+            requestSpec = specBuilder.build();
+            schemaValidationEnabled = Boolean.parseBoolean(config.getProperty("schema.validation.enabled", "true"));
+
+            // Retries (retry.count) for idempotent calls, plus a circuit breaker per endpoint
+            resilience = ResilientExecutor.fromConfig(config);
+
+            // Optional conditional-GET cache for booking reads (cache.enabled)
+            responseCache = ResponseCache.fromConfig(config);
+            if (responseCache != null) {
+                Runtime.getRuntime().addShutdownHook(new Thread(
+                        () -> log.info("Response cache stats: {}", responseCache.getStats()), "cache-stats"));
+            }
+
+            // Every booking created against a live host is journaled until deleted (cleanup.*), one
+            // journal per base URL so IDs are never replayed or torn down against another host
+            if (stubServer == null && !isReplaying()
+                    && Boolean.parseBoolean(System.getProperty("cleanup.enabled", config.getProperty("cleanup.enabled", "true")))) {
+                Path journal = Paths.get(config.getProperty("cleanup.journal.dir", "created-bookings"))
+                        .resolve(baseUrl.replaceAll("[^A-Za-z0-9._-]+", "_") + ".journal");
+                try {
+                    createdBookings = CreatedBookingTracker.open(journal, baseUrl);
+                    Runtime.getRuntime().addShutdownHook(new Thread(createdBookings::close, "booking-journal"));
+                } catch (IOException e) {
+                    log.error("Booking cleanup disabled: {}", e.getMessage());
+                }
+            }
+
+            authTokenManager = new AuthTokenManager(
+                    BaseApiClient::fetchAuthToken,
+                    Long.parseLong(config.getProperty("auth.token.ttl.ms", "600000")),
+                    Long.parseLong(config.getProperty("auth.token.refresh.ahead.ms", "60000")));
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> log.info(
+                    "Auth token refreshes: {} succeeded, {} failed, avg {} ms, max {} ms",
+                    authTokenManager.getRefreshCount(), authTokenManager.getFailureCount(),
+                    String.format("%.1f", authTokenManager.getAverageRefreshMillis()),
+                    String.format("%.1f", authTokenManager.getMaxRefreshMillis())), "auth-stats"));
             
             log.info("Successfully initialized BaseApiClient with base URL: {}", RestAssured.baseURI);
             
@@ -55,45 +165,201 @@ public class BaseApiClient {
         }
     }
 
+    protected static String getBaseUrl() {
+        return RestAssured.baseURI;
+    }
+
+    protected static String getConfigProperty(String key, String defaultValue) {
+        return config.getProperty(key, defaultValue);
+    }
+
+    public static PoolStats getConnectionPoolStats() {
+        return connectionPool.getStats();
+    }
+
+    /**
+     * Client-side settings that shape the load a run generates, recorded with performance baselines
+     * so that runs are only compared with runs of the same workload.
+     */
+    public static Map<String, String> getWorkloadSettings() {
+        Map<String, String> settings = new TreeMap<>();
+        settings.put("target", stubServer != null ? "stub" : RestAssured.baseURI);
+        settings.put("cache.enabled", String.valueOf(responseCache != null));
+        for (String key : new String[] {"http.pool.max.total", "http.pool.max.per.route", "bulk.concurrency"}) {
+            settings.put(key, System.getProperty(key, config.getProperty(key, "")));
+        }
+        return settings;
+    }
+
+    public static AuthTokenManager getAuthTokenManager() {
+        return authTokenManager;
+    }
+
+    public static ResilienceStats getResilienceStats() {
+        return resilience.getStats();
+    }
+
+    protected static void dumpRecentExchanges() {
+        if (exchangeLog != null) {
+            exchangeLog.dump();
+        }
+    }
+
+    /**
+     * Hit/miss counters of the response cache; all zero when {@code cache.enabled} is false.
+     */
+    public static CacheStats getResponseCacheStats() {
+        return responseCache != null ? responseCache.getStats() : CacheStats.builder().build();
+    }
+
+    /**
+     * Drops cached reads of a booking and of the booking lists after it was modified.
+     */
+    protected static void invalidateCached(int bookingId) {
+        if (responseCache != null) {
+            responseCache.invalidate("/booking/" + bookingId);
+            responseCache.invalidate("/booking");
+        }
+    }
+
+    /**
+     * Returns the tracker of bookings created and not yet deleted, or {@code null} when cleanup is
+     * disabled or the run cannot leave anything behind (embedded stub, cassette replay).
+     */
+    public static CreatedBookingTracker getCreatedBookings() {
+        return createdBookings;
+    }
+
+    protected static void trackCreated(Integer bookingId) {
+        if (createdBookings != null && bookingId != null) {
+            createdBookings.add(bookingId);
+        }
+    }
+
+    protected static void trackDeleted(int bookingId) {
+        if (createdBookings != null) {
+            createdBookings.remove(bookingId);
+        }
+    }
+
+    public static long getDefaultDeadlineMillis() {
+        return requestTimeouts.getDefaultDeadlineMillis();
+    }
+
+    /**
+     * True when responses come from a recorded cassette rather than the network.
+     */
+    public static boolean isReplaying() {
+        return cassette != null && cassette.getMode() == CassetteFilter.Mode.REPLAY;
+    }
+
+    /**
+     * Issues a request through the shared {@link ResilientExecutor}; {@code path} identifies the
+     * endpoint for its circuit breaker and timeouts. The call runs under the thread's current
+     * {@link Deadline}, or a fresh {@code test.timeout} one, and every attempt's connect and read
+     * timeouts are capped by the time that deadline has left.
+     */
+    protected static Response execute(String method, String path, Supplier<Response> call) {
+        String endpoint = LatencyRegistry.endpointKey(method, path);
+        Deadline deadline = Deadline.currentOr(requestTimeouts.getDefaultDeadlineMillis());
+        try (Deadline.Scope ignored = Deadline.enter(deadline)) {
+            return resilience.execute(method, path, deadline, () -> {
+                deadline.check(endpoint);
+                int[] previous = TimeoutFilter.set(
+                        deadline.cap(requestTimeouts.connectMillis(endpoint)),
+                        deadline.cap(requestTimeouts.readMillis(endpoint)));
+                try {
+                    return call.get();
+                } finally {
+                    TimeoutFilter.restore(previous);
+                }
+            }, Response::getStatusCode);
+        }
+    }
+
     protected RequestSpecification getRequestSpecification() {
         return requestSpec;
     }
 
     protected RequestSpecification getAuthenticatedRequestSpec() {
-        if (authToken == null) {
-            authToken = getAuthToken();
+        Deadline deadline = Deadline.currentOr(requestTimeouts.getDefaultDeadlineMillis());
+        String token = authTokenManager.getToken(deadline.remainingMillis());
+        return given()
+                .spec(requestSpec)
+                .cookie("token", token)
+                .auth().oauth2(token);
+    }
+
+    /**
+     * Drops the cached token after a 403 on an authenticated call, so the next call fetches a new
+     * one instead of failing until the TTL runs out.
+     */
+    protected static void onAuthenticatedResponse(Response response) {
+        if (response.getStatusCode() == 403) {
+            log.warn("Authenticated call was rejected with 403; invalidating the cached auth token");
+            authTokenManager.invalidate();
         }
-        return requestSpec.auth().oauth2(authToken);
     }
 
-    private String getAuthToken() {
+    private static CompletableFuture<String> fetchAuthToken() {
+        return CompletableFuture.supplyAsync(BaseApiClient::requestAuthToken, authExecutor);
+    }
+
+    private static String requestAuthToken() {
         try {
-            Response response = given()
+            Response response = execute("POST", "/auth", () -> given()
                     .spec(requestSpec)
                     .body("{\"username\":\"" + config.getProperty("auth.username") + 
                           "\",\"password\":\"" + config.getProperty("auth.password") + "\"}")
                     .when()
-                    .post("/auth");
+                    .post("/auth"));
             
             if (response.getStatusCode() == 200) {
-                String token = response.jsonPath().getString("token");
+                String body = response.getBody().asString();
+                validateSchema(ResponseSchemas.AUTH_TOKEN, body);
+                String token = ResponseDecoder.readTree(body).path("token").asText();
                 log.info("Successfully obtained auth token");
                 return token;
             } else {
                 log.error("Failed to get auth token. Status code: {}", response.getStatusCode());
-                return null;
+                throw new RuntimeException("Auth request failed with status code: " + response.getStatusCode());
             }
-        } catch (Exception e) {
+        } catch (RuntimeException e) {
             log.error("Error getting auth token: {}", e.getMessage());
-            return null;
+            throw e;
         }
     }
 
+    protected static ApiResult toApiResult(Response response) {
+        ApiResult.ApiResultBuilder result = ApiResult.builder()
+                .statusCode(response.getStatusCode())
+                .body(response.getBody().asString())
+                .responseTimeMillis(response.getTime());
+        for (Header header : response.getHeaders()) {
+            result.header(header.getName(), header.getValue());
+        }
+        return result.build();
+    }
+
+    protected static BookingResult toBookingResult(Response response, Integer bookingId, Booking booking) {
+        BookingResult.BookingResultBuilder result = BookingResult.builder()
+                .statusCode(response.getStatusCode())
+                .body(response.getBody().asString())
+                .responseTimeMillis(response.getTime())
+                .bookingId(bookingId)
+                .booking(booking);
+        for (Header header : response.getHeaders()) {
+            result.header(header.getName(), header.getValue());
+        }
+        return result.build();
+    }
+
     protected void validateResponse(Response response, int expectedStatusCode) {
         if (response.getStatusCode() != expectedStatusCode) {
             String errorMessage = String.format("Expected status code %d but got %d. Response: %s",
                     expectedStatusCode, response.getStatusCode(), response.getBody().asString());
             log.error(errorMessage);
+            dumpRecentExchanges();
             throw new AssertionError(errorMessage);
         }
         
@@ -102,6 +368,7 @@ public class BaseApiClient {
             if (responseBody == null || responseBody.isEmpty()) {
                 String errorMessage = "Empty response body received";
                 log.error(errorMessage);
+                dumpRecentExchanges();
                 throw new AssertionError(errorMessage);
             }
         }
@@ -114,9 +381,48 @@ public class BaseApiClient {
         }
     }
 
+    /**
+     * Checks a body against a precompiled response schema in one streaming pass and fails with all
+     * violations at once. Controlled by {@code schema.validation.enabled}.
+     */
+    protected static void validateSchema(String schemaName, String body) {
+        if (!schemaValidationEnabled) {
+            return;
+        }
+        try {
+            ResponseSchemas.assertValid(schemaName, body);
+        } catch (SchemaValidationException e) {
+            log.error(e.getMessage());
+            dumpRecentExchanges();
+            throw e;
+        }
+    }
+
+    /**
+     * Same as {@link #validateSchema(String, String)}, but only decodes the body when validation is
+     * enabled, for callers that otherwise stream it.
+     */
+    protected static void validateSchema(String schemaName, Response response) {
+        if (schemaValidationEnabled) {
+            validateSchema(schemaName, response.getBody().asString());
+        }
+    }
+
     protected void validateResponseBody(Response response, String jsonPath, Object expectedValue) {
+        validateResponseBody(ResponseDecoder.readTree(response.getBody().asString()), jsonPath, expectedValue);
+    }
+
+    /**
+     * Validates a dot-separated path against a body that has already been decoded, so several
+     * fields can be checked without parsing the response again.
+     */
+    protected void validateResponseBody(JsonNode body, String jsonPath, Object expectedValue) {
         try {
-            Object actualValue = response.jsonPath().get(jsonPath);
+            JsonNode node = body;
+            for (String field : jsonPath.split("\\.")) {
+                node = node.path(field);
+            }
+            Object actualValue = toValue(node);
             if (expectedValue == null && actualValue == null) {
                 return;
             }
@@ -135,4 +441,19 @@ public class BaseApiClient {
             throw new AssertionError(errorMessage);
         }
     }
+
+    private static Object toValue(JsonNode node) {
+        if (node.isMissingNode() || node.isNull()) {
+            return null;
+        } else if (node.isTextual()) {
+            return node.textValue();
+        } else if (node.isBoolean()) {
+            return node.booleanValue();
+        } else if (node.isInt()) {
+            return node.intValue();
+        } else if (node.isNumber()) {
+            return node.numberValue();
+        }
+        return node;
+    }
 } 
\ No newline at end of file
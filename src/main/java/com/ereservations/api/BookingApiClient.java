@@ -1,112 +1,224 @@
 package com.ereservations.api;
 
-import com.ereservations.models.Booking;
+import com.ereservations.models.BookingQuery;
+import com.ereservations.models.BookingResponse;
+import com.ereservations.models.BookingResult;
+import com.ereservations.schema.ResponseSchemas;
 import com.fasterxml.jackson.databind.JsonNode;
 import io.restassured.response.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
 import static io.restassured.RestAssured.given;
 
+/**
+ * Stateless booking client. Every call returns an immutable {@link BookingResult}, so one instance
+ * can be shared by any number of test threads.
+ */
 public class BookingApiClient extends BaseApiClient {
     private static final Logger log = LoggerFactory.getLogger(BookingApiClient.class);
-    private Response lastResponse;
-    
-    public BookingApiClient createBooking(JsonNode bookingData) {
+
+    public BookingResult createBooking(JsonNode bookingData) {
+        return createBooking(bookingData, 200);
+    }
+
+    public BookingResult createBooking(JsonNode bookingData, int expectedStatusCode) {
         log.info("Creating new booking with data: {}", bookingData);
-        
-        lastResponse = given()
+
+        Response response = execute("POST", "/booking", () -> given()
                 .spec(getRequestSpecification())
                 .body(bookingData.toString())
                 .when()
-                .post("/booking");
-        
-        validateResponse(lastResponse, 200);
-        
-        int bookingId = lastResponse.jsonPath().getInt("bookingid");
-        log.info("Booking created successfully with ID: {}", bookingId);
-        return this;
+                .post("/booking"));
+        if (responseCache != null) {
+            responseCache.invalidate("/booking");
+        }
+        if (response.getStatusCode() == 200 && expectedStatusCode != 200) {
+            // A payload that should have been rejected still created a booking
+            trackUnexpectedlyCreated(response);
+        }
+
+        validateResponse(response, expectedStatusCode);
+
+        if (response.getStatusCode() != 200) {
+            return toBookingResult(response, null, null);
+        }
+        String body = response.getBody().asString();
+        validateSchema(ResponseSchemas.BOOKING_RESPONSE, body);
+        BookingResponse created = ResponseDecoder.readBookingResponse(body);
+        trackCreated(created.getBookingId());
+        log.info("Booking created successfully with ID: {}", created.getBookingId());
+        return toBookingResult(response, created.getBookingId(), created.getBooking());
+    }
+
+    public BookingResult getBooking(int bookingId) {
+        return getBooking(bookingId, 200);
     }
 
-    public BookingApiClient getBooking(int bookingId) {
+    public BookingResult getBooking(int bookingId, int expectedStatusCode) {
         log.info("Retrieving booking with ID: {}", bookingId);
-        lastResponse = given()
-                .spec(getRequestSpecification())
-                .when()
-                .get("/booking/" + bookingId);
-        
-        validateResponse(lastResponse, 200);
-        log.info("Successfully retrieved booking details for ID: {}", bookingId);
-        return this;
+        String path = "/booking/" + bookingId;
+        if (responseCache != null && expectedStatusCode == 200) {
+            // Shared as-is: BookingResult copies its Booking on every getBooking()
+            return responseCache.get(path, validators -> get(path, validators),
+                    response -> readBooking(response, bookingId, expectedStatusCode));
+        }
+        return readBooking(get(path, Collections.emptyMap()), bookingId, expectedStatusCode);
     }
 
-    public BookingApiClient updateBooking(int bookingId, JsonNode bookingData) {
+    public BookingResult updateBooking(int bookingId, JsonNode bookingData) {
         log.info("Updating booking with ID: {} with data: {}", bookingId, bookingData);
-        
-        lastResponse = given()
+
+        Response response = execute("PUT", "/booking/" + bookingId, () -> given()
                 .spec(getAuthenticatedRequestSpec())
                 .body(bookingData.toString())
                 .when()
-                .put("/booking/" + bookingId);
-        
-        validateResponse(lastResponse, 200);
+                .put("/booking/" + bookingId));
+        onAuthenticatedResponse(response);
+        invalidateCached(bookingId);
+
+        validateResponse(response, 200);
+        String body = response.getBody().asString();
+        validateSchema(ResponseSchemas.BOOKING, body);
         log.info("Booking updated successfully for ID: {}", bookingId);
-        return this;
+        return toBookingResult(response, bookingId, ResponseDecoder.readBooking(body));
     }
 
-    public BookingApiClient deleteBooking(int bookingId) {
+    public BookingResult deleteBooking(int bookingId) {
         log.info("Deleting booking with ID: {}", bookingId);
-        lastResponse = given()
+        Response response = execute("DELETE", "/booking/" + bookingId, () -> given()
                 .spec(getAuthenticatedRequestSpec())
                 .when()
-                .delete("/booking/" + bookingId);
-        
-        validateResponse(lastResponse, 201);
+                .delete("/booking/" + bookingId));
+        onAuthenticatedResponse(response);
+        invalidateCached(bookingId);
+        if (response.getStatusCode() == 201) {
+            trackDeleted(bookingId);
+        }
+
+        validateResponse(response, 201);
         log.info("Booking deleted successfully for ID: {}", bookingId);
-        return this;
+        return toBookingResult(response, bookingId, null);
     }
 
-    public BookingApiClient getBookingIds() {
+    public BookingResult getBookingIds() {
         log.info("Retrieving all booking IDs");
-        lastResponse = given()
-                .spec(getRequestSpecification())
-                .when()
-                .get("/booking");
-        
-        validateResponse(lastResponse, 200);
-        int bookingCount = lastResponse.jsonPath().getList("$").size();
-        log.info("Successfully retrieved {} booking IDs", bookingCount);
-        return this;
+        if (responseCache != null) {
+            return responseCache.get("/booking", validators -> get("/booking", validators), this::readBookingIds);
+        }
+        return readBookingIds(get("/booking", Collections.emptyMap()));
     }
 
-    public Response getLastResponse() {
-        return lastResponse;
+    /**
+     * Returns the IDs of the bookings matching {@code query}, filtered by the server. The body is
+     * parsed token by token into a primitive array instead of a tree of boxed values.
+     */
+    public int[] findBookingIds(BookingQuery query) {
+        Map<String, String> params = query.toQueryParams();
+        log.info("Retrieving booking IDs matching {}", params);
+        if (responseCache != null) {
+            // Always keyed with '?' so it never collides with getBookingIds() and is still invalidated with /booking
+            String key = params.entrySet().stream()
+                    .map(param -> param.getKey() + "=" + param.getValue())
+                    .collect(Collectors.joining("&", "/booking?", ""));
+            return responseCache.get(key, validators -> get("/booking", params, validators), this::readBookingIdArray)
+                    .clone();
+        }
+        return readBookingIdArray(get("/booking", params, Collections.emptyMap()));
+    }
+
+    public IntStream streamBookingIds(BookingQuery query) {
+        return Arrays.stream(findBookingIds(query));
     }
 
-    public Response sendOptionsRequest(String endpoint) {
-        lastResponse = given()
+    public BookingResult sendOptionsRequest(String endpoint) {
+        Response response = execute("OPTIONS", endpoint, () -> given()
             .spec(getRequestSpecification())
             .when()
             .options(endpoint)
             .then()
             .extract()
-            .response();
-        return lastResponse;
+            .response());
+        return toBookingResult(response, null, null);
+    }
+
+    // Conditional headers are only set when revalidating a cached response
+    private Response get(String path, Map<String, String> headers) {
+        return get(path, Collections.emptyMap(), headers);
+    }
+
+    private Response get(String path, Map<String, String> query, Map<String, String> headers) {
+        return execute("GET", path, () -> given()
+                .spec(getRequestSpecification())
+                .queryParams(query)
+                .headers(headers)
+                .when()
+                .get(path));
+    }
+
+    private static void trackUnexpectedlyCreated(Response response) {
+        try {
+            JsonNode bookingId = ResponseDecoder.readTree(response.getBody().asString()).get("bookingid");
+            if (bookingId != null && bookingId.canConvertToInt()) {
+                trackCreated(bookingId.intValue());
+            }
+        } catch (UncheckedIOException e) {
+            // Not a booking response; nothing to tear down
+        }
+    }
+
+    private BookingResult readBooking(Response response, int bookingId, int expectedStatusCode) {
+        validateResponse(response, expectedStatusCode);
+        log.info("Retrieved booking details for ID: {} with status {}", bookingId, response.getStatusCode());
+        if (response.getStatusCode() != 200) {
+            return toBookingResult(response, bookingId, null);
+        }
+        String body = response.getBody().asString();
+        validateSchema(ResponseSchemas.BOOKING, body);
+        return toBookingResult(response, bookingId, ResponseDecoder.readBooking(body));
+    }
+
+    private BookingResult readBookingIds(Response response) {
+        validateResponse(response, 200);
+        validateSchema(ResponseSchemas.BOOKING_IDS, response);
+        int bookingCount = ResponseDecoder.readBookingIds(response.getBody().asInputStream()).length;
+        log.info("Successfully retrieved {} booking IDs", bookingCount);
+        return toBookingResult(response, null, null);
+    }
+
+    private int[] readBookingIdArray(Response response) {
+        // The full-body checks are only needed to report a failure
+        if (response.getStatusCode() != 200) {
+            validateResponse(response, 200);
+        }
+        validateSchema(ResponseSchemas.BOOKING_IDS, response);
+        int[] ids = ResponseDecoder.readBookingIds(response.getBody().asInputStream());
+        log.info("Successfully retrieved {} booking IDs", ids.length);
+        return ids;
     }
 
     @Override
     protected void validateResponse(Response response, int expectedStatusCode) {
         if (response.getStatusCode() != expectedStatusCode) {
             log.error("API call failed with status code: {}", response.getStatusCode());
+            dumpRecentExchanges();
             throw new RuntimeException("API call failed with status code: " + response.getStatusCode());
         }
-        
+
         if (expectedStatusCode == 200 || expectedStatusCode == 201) {
             String responseBody = response.getBody().asString();
             if (responseBody == null || responseBody.isEmpty()) {
                 log.error("Empty response body received");
+                dumpRecentExchanges();
                 throw new RuntimeException("Empty response body received");
             }
         }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,206 @@
+package com.ereservations.api;
+
+import lombok.Value;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read side of a recorded HTTP cassette. The file holds a header, an index sorted by request key
+ * and the encoded responses; only the index is read onto the heap, while responses are decoded
+ * straight from a memory-mapped buffer when served. Exchanges recorded more than once under the
+ * same key are replayed in recording order, the last one repeating once they run out.
+ *
+ * <pre>
+ * int magic, int entryCount
+ * entryCount x (long key, int offset, int length)   sorted by key, then recording order
+ * records: int status, str statusLine, short headerCount, headerCount x (str name, str value),
+ *          int bodyLength, body                      (str = unsigned short length + UTF-8 bytes)
+ * </pre>
+ */
+public final class Cassette implements AutoCloseable {
+    private static final int MAGIC = 0x43415331; // "CAS1"
+    private static final int INDEX_ENTRY_BYTES = Long.BYTES + Integer.BYTES + Integer.BYTES;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final long[] keys;
+    private final int[] offsets;
+    private final int[] lengths;
+    private final Map<Long, AtomicInteger> cursors = new ConcurrentHashMap<>();
+
+    private Cassette(Path file, FileChannel channel, MappedByteBuffer buffer) throws IOException {
+        this.file = file;
+        this.channel = channel;
+        this.buffer = buffer;
+        ByteBuffer header = buffer.duplicate();
+        if (header.getInt() != MAGIC) {
+            throw new IOException("Not a cassette file: " + file);
+        }
+        int entries = header.getInt();
+        this.keys = new long[entries];
+        this.offsets = new int[entries];
+        this.lengths = new int[entries];
+        for (int i = 0; i < entries; i++) {
+            keys[i] = header.getLong();
+            offsets[i] = header.getInt();
+            lengths[i] = header.getInt();
+        }
+    }
+
+    public static Cassette open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Cassette larger than 2 GB: " + file);
+            }
+            return new Cassette(file, channel, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the next recorded exchange for {@code key}, or {@code null} if none was recorded.
+     */
+    public Exchange next(long key) {
+        int found = Arrays.binarySearch(keys, key);
+        if (found < 0) {
+            return null;
+        }
+        int first = found;
+        while (first > 0 && keys[first - 1] == key) {
+            first--;
+        }
+        int last = found;
+        while (last + 1 < keys.length && keys[last + 1] == key) {
+            last++;
+        }
+        int served = cursors.computeIfAbsent(key, k -> new AtomicInteger()).getAndIncrement();
+        int entry = Math.min(first + served, last);
+        return decode(offsets[entry], lengths[entry]);
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Writes {@code exchanges}, each key's list in recording order, as a new cassette.
+     */
+    static void write(Path file, Map<Long, List<Exchange>> exchanges) throws IOException {
+        List<byte[]> records = new ArrayList<>();
+        List<Long> recordKeys = new ArrayList<>();
+        for (Map.Entry<Long, List<Exchange>> entry : new TreeMap<>(exchanges).entrySet()) {
+            for (Exchange exchange : entry.getValue()) {
+                recordKeys.add(entry.getKey());
+                records.add(encode(exchange));
+            }
+        }
+        if (file.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+        try (OutputStream stream = Files.newOutputStream(file);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+            out.writeInt(MAGIC);
+            out.writeInt(records.size());
+            long offset = 2L * Integer.BYTES + (long) records.size() * INDEX_ENTRY_BYTES;
+            for (int i = 0; i < records.size(); i++) {
+                if (offset + records.get(i).length > Integer.MAX_VALUE) {
+                    throw new IOException("Cassette would exceed 2 GB: " + file);
+                }
+                out.writeLong(recordKeys.get(i));
+                out.writeInt((int) offset);
+                out.writeInt(records.get(i).length);
+                offset += records.get(i).length;
+            }
+            for (byte[] record : records) {
+                out.write(record);
+            }
+        }
+    }
+
+    private static byte[] encode(Exchange exchange) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + exchange.getBody().length);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(exchange.getStatusCode());
+        writeString(out, exchange.getStatusLine());
+        out.writeShort(exchange.getHeaders().length / 2);
+        for (String value : exchange.getHeaders()) {
+            writeString(out, value);
+        }
+        out.writeInt(exchange.getBody().length);
+        out.write(exchange.getBody());
+        return bytes.toByteArray();
+    }
+
+    private Exchange decode(int offset, int length) {
+        ByteBuffer record = buffer.duplicate();
+        record.position(offset);
+        record.limit(offset + length);
+        int statusCode = record.getInt();
+        String statusLine = readString(record);
+        String[] headers = new String[record.getShort() * 2];
+        for (int i = 0; i < headers.length; i++) {
+            headers[i] = readString(record);
+        }
+        byte[] body = new byte[record.getInt()];
+        record.get(body);
+        return new Exchange(statusCode, statusLine, headers, body);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, 0xFFFF);
+        out.writeShort(length);
+        out.write(bytes, 0, length);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * One recorded response. Headers are stored flat as name, value, name, value, ...
+     */
+    @Value
+    public static class Exchange {
+        int statusCode;
+
+        String statusLine;
+
+        String[] headers;
+
+        byte[] body;
+    }
+}
@@ -0,0 +1,219 @@
+package com.ereservations.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Records exchanges into a {@link Cassette} or replays them without touching the network.
+ * Requests are matched on method, path, sorted query parameters, the presence of
+ * {@code cassette.match.headers} and the JSON body with keys sorted and
+ * {@code cassette.ignore.fields} removed, so volatile values such as tokens do not break matching.
+ * Added ahead of all other filters, so replayed calls skip timeouts, latency recording and logging.
+ */
+public class CassetteFilter implements Filter {
+    private static final Logger log = LoggerFactory.getLogger(CassetteFilter.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    public enum Mode { OFF, RECORD, REPLAY }
+
+    private final Mode mode;
+    private final Path file;
+    private final Set<String> ignoredFields;
+    private final List<String> matchedHeaders;
+    private final Cassette cassette;
+    private final Map<Long, List<Cassette.Exchange>> recorded = new ConcurrentHashMap<>();
+
+    CassetteFilter(Mode mode, Path file, Set<String> ignoredFields, List<String> matchedHeaders) throws IOException {
+        this.mode = mode;
+        this.file = file;
+        this.ignoredFields = ignoredFields;
+        this.matchedHeaders = matchedHeaders;
+        this.cassette = mode == Mode.REPLAY ? Cassette.open(file) : null;
+        if (cassette != null) {
+            log.info("Replaying {} recorded exchanges from {}", cassette.size(), file);
+        }
+    }
+
+    /**
+     * Returns the filter for {@code cassette.mode}, or {@code null} when it is off.
+     */
+    public static CassetteFilter fromConfig(Properties config) throws IOException {
+        Mode mode = Mode.valueOf(System.getProperty("cassette.mode", config.getProperty("cassette.mode", "off"))
+                .trim().toUpperCase());
+        if (mode == Mode.OFF) {
+            return null;
+        }
+        Path file = Paths.get(System.getProperty("cassette.file",
+                config.getProperty("cassette.file", "src/test/resources/cassettes/restful-booker.cassette")));
+        return new CassetteFilter(mode, file,
+                Set.copyOf(split(config.getProperty("cassette.ignore.fields", ""))),
+                split(config.getProperty("cassette.match.headers", "Cookie,Authorization")));
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        long key = requestKey(requestSpec);
+        if (mode == Mode.REPLAY) {
+            Cassette.Exchange exchange = cassette.next(key);
+            if (exchange == null) {
+                throw new CassetteMissException(requestSpec.getMethod() + " " + requestSpec.getUserDefinedPath(), file);
+            }
+            return toResponse(exchange);
+        }
+        Response response = ctx.next(requestSpec, responseSpec);
+        // Per-key lists keep recording order; distinct keys are recorded concurrently
+        recorded.computeIfAbsent(key, k -> Collections.synchronizedList(new ArrayList<>())).add(toExchange(response));
+        return response;
+    }
+
+    /**
+     * Writes everything recorded so far. Called once at shutdown in record mode.
+     */
+    public void save() {
+        if (mode != Mode.RECORD) {
+            return;
+        }
+        try {
+            Cassette.write(file, recorded);
+            log.info("Recorded {} request keys to {}", recorded.size(), file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write cassette " + file, e);
+        }
+    }
+
+    long requestKey(FilterableRequestSpecification requestSpec) {
+        StringBuilder material = new StringBuilder()
+                .append(requestSpec.getMethod()).append(' ').append(requestSpec.getUserDefinedPath())
+                .append('?').append(new TreeMap<>(requestSpec.getQueryParams())).append('\n');
+        for (String header : matchedHeaders) {
+            material.append(header).append(requestSpec.getHeaders().hasHeaderWithName(header) ? "+" : "-");
+        }
+        Object body = requestSpec.getBody();
+        if (body != null) {
+            material.append('\n').append(canonicalBody(body.toString()));
+        }
+        return hash(material.toString());
+    }
+
+    private String canonicalBody(String body) {
+        try {
+            JsonNode tree = objectMapper.readTree(body);
+            StringBuilder canonical = new StringBuilder(body.length());
+            appendCanonical(tree, canonical);
+            return canonical.toString();
+        } catch (IOException e) {
+            // Not JSON (e.g. a deliberately malformed payload): match it verbatim
+            return body;
+        }
+    }
+
+    private void appendCanonical(JsonNode node, StringBuilder out) {
+        if (node.isObject()) {
+            TreeMap<String, JsonNode> fields = new TreeMap<>();
+            for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> field = it.next();
+                if (!ignoredFields.contains(field.getKey())) {
+                    fields.put(field.getKey(), field.getValue());
+                }
+            }
+            out.append('{');
+            fields.forEach((name, value) -> {
+                out.append(name).append(':');
+                appendCanonical(value, out);
+                out.append(',');
+            });
+            out.append('}');
+        } else if (node.isArray()) {
+            out.append('[');
+            node.forEach(element -> {
+                appendCanonical(element, out);
+                out.append(',');
+            });
+            out.append(']');
+        } else {
+            out.append(node.toString());
+        }
+    }
+
+    private static long hash(String material) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(material.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static Cassette.Exchange toExchange(Response response) {
+        List<String> headers = new ArrayList<>();
+        for (Header header : response.getHeaders()) {
+            headers.add(header.getName());
+            headers.add(header.getValue());
+        }
+        return new Cassette.Exchange(response.getStatusCode(), response.getStatusLine(),
+                headers.toArray(new String[0]), response.getBody().asByteArray());
+    }
+
+    private static Response toResponse(Cassette.Exchange exchange) {
+        List<Header> headers = new ArrayList<>(exchange.getHeaders().length / 2);
+        String contentType = null;
+        for (int i = 0; i < exchange.getHeaders().length; i += 2) {
+            headers.add(new Header(exchange.getHeaders()[i], exchange.getHeaders()[i + 1]));
+            if ("Content-Type".equalsIgnoreCase(exchange.getHeaders()[i])) {
+                contentType = exchange.getHeaders()[i + 1];
+            }
+        }
+        ResponseBuilder builder = new ResponseBuilder()
+                .setStatusCode(exchange.getStatusCode())
+                .setStatusLine(exchange.getStatusLine())
+                .setHeaders(new Headers(headers))
+                .setBody(exchange.getBody());
+        if (contentType != null) {
+            builder.setContentType(contentType);
+        }
+        return builder.build();
+    }
+
+    private static List<String> split(String value) {
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(entry -> !entry.isEmpty())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,12 @@
+package com.ereservations.api;
+
+import java.nio.file.Path;
+
+/**
+ * Thrown in replay mode when the cassette holds no recorded exchange for a request.
+ */
+public class CassetteMissException extends RuntimeException {
+    public CassetteMissException(String request, Path cassette) {
+        super("No recorded exchange for " + request + " in " + cassette + "; re-record with -Dcassette.mode=record");
+    }
+}
@@ -0,0 +1,92 @@
+package com.ereservations.api;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Per-endpoint circuit breaker. After {@code failureThreshold} consecutive failures it opens and
+ * rejects calls for {@code openMillis}; the first call after that runs as a half-open probe and
+ * either closes the breaker or opens it again.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /**
+     * Notified on every state change, e.g. to count transitions.
+     */
+    public interface TransitionListener {
+        void onTransition(String endpoint, State from, State to);
+    }
+
+    private final String endpoint;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final TransitionListener listener;
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong openedAt = new AtomicLong();
+
+    public CircuitBreaker(String endpoint, int failureThreshold, long openMillis, TransitionListener listener) {
+        this.endpoint = endpoint;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.listener = listener;
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    /**
+     * Returns whether a call may proceed. While half-open only the single probe call is admitted.
+     */
+    public boolean tryAcquire() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN && System.currentTimeMillis() - openedAt.get() >= openMillis) {
+            return transition(State.OPEN, State.HALF_OPEN);
+        }
+        return false;
+    }
+
+    public void onSuccess() {
+        consecutiveFailures.set(0);
+        transition(State.HALF_OPEN, State.CLOSED);
+    }
+
+    public void onFailure() {
+        if (state.get() == State.HALF_OPEN) {
+            open(State.HALF_OPEN);
+        } else if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            open(State.CLOSED);
+        }
+    }
+
+    /**
+     * Releases an admitted call that ended without telling anything about the endpoint's health,
+     * e.g. because its deadline passed first. A half-open probe slot goes back to OPEN with the
+     * original open time, so the next call can probe right away; failure counts are unchanged.
+     */
+    public void onAbort() {
+        transition(State.HALF_OPEN, State.OPEN);
+    }
+
+    private void open(State from) {
+        openedAt.set(System.currentTimeMillis());
+        if (transition(from, State.OPEN)) {
+            consecutiveFailures.set(0);
+        }
+    }
+
+    private boolean transition(State from, State to) {
+        if (state.compareAndSet(from, to)) {
+            listener.onTransition(endpoint, from, to);
+            return true;
+        }
+        return false;
+    }
+}
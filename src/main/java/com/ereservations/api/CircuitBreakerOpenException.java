@@ -0,0 +1,10 @@
+package com.ereservations.api;
+
+/**
+ * Thrown instead of calling an endpoint whose circuit breaker is open.
+ */
+public class CircuitBreakerOpenException extends RuntimeException {
+    public CircuitBreakerOpenException(String endpoint) {
+        super("Circuit breaker open for " + endpoint);
+    }
+}
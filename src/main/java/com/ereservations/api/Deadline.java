@@ -0,0 +1,89 @@
+package com.ereservations.api;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A point in time by which a whole flow must finish, e.g. fetching a token and then updating a
+ * booking. Entering a deadline makes it current for the thread, so every request issued inside the
+ * scope shares the remaining time instead of each getting a fresh timeout.
+ *
+ * <pre>{@code
+ * try (Deadline.Scope ignored = Deadline.enter(Deadline.after(5_000))) {
+ *     client.updateBooking(id, data);
+ * }
+ * }</pre>
+ */
+public final class Deadline {
+    private static final ThreadLocal<Deadline> current = new ThreadLocal<>();
+
+    private final long expiresAtNanos;
+
+    private Deadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    public static Deadline after(long millis) {
+        return new Deadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    /**
+     * The deadline entered on this thread, or {@code null} if none is active.
+     */
+    public static Deadline current() {
+        return current.get();
+    }
+
+    public static Deadline currentOr(long defaultMillis) {
+        Deadline deadline = current.get();
+        return deadline != null ? deadline : after(defaultMillis);
+    }
+
+    /**
+     * Makes {@code deadline} current until the returned scope is closed. A deadline later than the
+     * one already active is ignored, so nested flows can only shorten the time budget.
+     */
+    public static Scope enter(Deadline deadline) {
+        Deadline previous = current.get();
+        current.set(previous != null && previous.expiresAtNanos < deadline.expiresAtNanos ? previous : deadline);
+        return () -> {
+            if (previous != null) {
+                current.set(previous);
+            } else {
+                current.remove();
+            }
+        };
+    }
+
+    public long remainingMillis() {
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(expiresAtNanos - System.nanoTime()));
+    }
+
+    public boolean isExpired() {
+        return System.nanoTime() >= expiresAtNanos;
+    }
+
+    /**
+     * Throws {@link DeadlineExceededException} if no time is left for {@code operation}.
+     */
+    public void check(String operation) {
+        if (isExpired()) {
+            throw new DeadlineExceededException(operation);
+        }
+    }
+
+    /**
+     * Caps a per-request timeout by the time left, never returning less than one millisecond.
+     */
+    public int cap(long timeoutMillis) {
+        return (int) Math.max(1, Math.min(timeoutMillis, remainingMillis()));
+    }
+
+    /**
+     * Restores the previously active deadline when closed.
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,10 @@
+package com.ereservations.api;
+
+/**
+ * Thrown when a request would start after its flow's {@link Deadline} has passed.
+ */
+public class DeadlineExceededException extends RuntimeException {
+    public DeadlineExceededException(String operation) {
+        super("Deadline exceeded before " + operation);
+    }
+}
@@ -1,5 +1,7 @@
 package com.ereservations.api;
 
+import com.ereservations.models.ApiResult;
+import com.ereservations.schema.ResponseSchemas;
 import io.restassured.response.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,22 +11,18 @@ import static io.restassured.RestAssured.given;
 public class HealthCheckApiClient extends BaseApiClient {
     private static final Logger log = LoggerFactory.getLogger(HealthCheckApiClient.class);
 
-    private Response lastResponse;
-
-    public HealthCheckApiClient checkHealth() {
+    public ApiResult checkHealth() {
         log.info("Checking API health status");
-        lastResponse = given()
+        Response response = execute("GET", "/health", () -> given()
                 .spec(getRequestSpecification())
                 .when()
-                .get("/health");
+                .get("/health"));
         
-        validateResponse(lastResponse, 200);
-        validateResponseBody(lastResponse, "status", "OK");
+        validateResponse(response, 200);
+        String body = response.getBody().asString();
+        validateSchema(ResponseSchemas.HEALTH, body);
+        validateResponseBody(ResponseDecoder.readTree(body), "status", "OK");
         log.info("API health check passed");
-        return this;
-    }
-
-    public Response getLastResponse() {
-        return lastResponse;
+        return toApiResult(response);
     }
-} 
\ No newline at end of file
+}
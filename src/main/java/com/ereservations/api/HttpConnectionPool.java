@@ -0,0 +1,117 @@
+package com.ereservations.api;
+
+import io.restassured.config.HttpClientConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.pool.PoolStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keep-alive connection pool shared by every RestAssured request issued through {@link BaseApiClient}.
+ * RestAssured builds a fresh {@link DefaultHttpClient} per request and shuts its connection manager
+ * down afterwards, so the pooled manager ignores those shutdowns and is only closed by {@link #close()}.
+ */
+@SuppressWarnings("deprecation")
+public class HttpConnectionPool {
+    private static final Logger log = LoggerFactory.getLogger(HttpConnectionPool.class);
+
+    private final SharedConnectionManager connectionManager;
+    private final HttpParams httpParams;
+    private final ConnectionKeepAliveStrategy keepAliveStrategy;
+    private final ScheduledExecutorService evictor;
+
+    public HttpConnectionPool(int maxTotal, int maxPerRoute, long keepAliveMillis, long idleTimeoutMillis,
+                              long evictionIntervalMillis, boolean tcpNoDelay) {
+        connectionManager = new SharedConnectionManager();
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+
+        httpParams = new BasicHttpParams();
+        HttpConnectionParams.setTcpNoDelay(httpParams, tcpNoDelay);
+        HttpConnectionParams.setSoKeepalive(httpParams, true);
+        HttpConnectionParams.setStaleCheckingEnabled(httpParams, false);
+
+        keepAliveStrategy = (response, context) -> {
+            long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAliveMillis) : keepAliveMillis;
+        };
+
+        evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "http-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.scheduleWithFixedDelay(() -> {
+            connectionManager.closeExpiredConnections();
+            connectionManager.closeIdleConnections(idleTimeoutMillis, TimeUnit.MILLISECONDS);
+        }, evictionIntervalMillis, evictionIntervalMillis, TimeUnit.MILLISECONDS);
+
+        log.info("Initialized HTTP connection pool (maxTotal={}, maxPerRoute={}, keepAlive={} ms, idleTimeout={} ms, tcpNoDelay={})",
+                maxTotal, maxPerRoute, keepAliveMillis, idleTimeoutMillis, tcpNoDelay);
+    }
+
+    /**
+     * Builds the pool from {@code http.pool.*}; system properties override the file, e.g. to size
+     * the pool for a soak run.
+     */
+    public static HttpConnectionPool fromConfig(Properties config) {
+        return new HttpConnectionPool(
+                Integer.parseInt(setting(config, "http.pool.max.total", "50")),
+                Integer.parseInt(setting(config, "http.pool.max.per.route", "20")),
+                Long.parseLong(setting(config, "http.pool.keepalive.ms", "30000")),
+                Long.parseLong(setting(config, "http.pool.idle.timeout.ms", "60000")),
+                Long.parseLong(setting(config, "http.pool.eviction.interval.ms", "5000")),
+                Boolean.parseBoolean(setting(config, "http.pool.tcp.nodelay", "true")));
+    }
+
+    private static String setting(Properties config, String key, String defaultValue) {
+        return System.getProperty(key, config.getProperty(key, defaultValue));
+    }
+
+    public HttpClientConfig httpClientConfig() {
+        return HttpClientConfig.httpClientConfig().httpClientFactory(() -> {
+            DefaultHttpClient client = new DefaultHttpClient(connectionManager, httpParams.copy());
+            client.setKeepAliveStrategy(keepAliveStrategy);
+            return client;
+        });
+    }
+
+    public PoolStats getStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    public void close() {
+        PoolStats stats = getStats();
+        log.info("Closing HTTP connection pool (leased={}, idle={}, pending={})",
+                stats.getLeased(), stats.getAvailable(), stats.getPending());
+        evictor.shutdownNow();
+        connectionManager.close();
+    }
+
+    private static class SharedConnectionManager extends PoolingClientConnectionManager {
+        SharedConnectionManager() {
+            super(SchemeRegistryFactory.createDefault());
+        }
+
+        @Override
+        public void shutdown() {
+            // Invoked by RestAssured after every request; the pool outlives individual clients.
+        }
+
+        void close() {
+            super.shutdown();
+        }
+    }
+}
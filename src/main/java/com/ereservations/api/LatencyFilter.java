@@ -0,0 +1,34 @@
+package com.ereservations.api;
+
+import com.ereservations.metrics.LatencyRegistry;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Records the wall-clock time of every request into a {@link LatencyRegistry}, keyed by method and
+ * endpoint template. Requests made by a {@link ResilientExecutor} attempt are handed to the executor,
+ * which files them once it knows whether the attempt is retried.
+ */
+public class LatencyFilter implements Filter {
+    private final LatencyRegistry registry;
+
+    public LatencyFilter(LatencyRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        long start = System.nanoTime();
+        Response response = ctx.next(requestSpec, responseSpec);
+        long elapsedNanos = System.nanoTime() - start;
+        if (!ResilientExecutor.offerAttemptLatency(elapsedNanos)) {
+            registry.record(requestSpec.getMethod(), requestSpec.getUserDefinedPath(), elapsedNanos);
+        }
+        return response;
+    }
+}
@@ -1,5 +1,6 @@
 package com.ereservations.api;
 
+import com.ereservations.models.ApiResult;
 import io.restassured.response.Response;
 import lombok.extern.slf4j.Slf4j;
 
@@ -7,20 +8,15 @@ import static io.restassured.RestAssured.given;
 
 @Slf4j
 public class PingApiClient extends BaseApiClient {
-    private Response lastResponse;
 
-    public Response ping() {
+    public ApiResult ping() {
         log.info("Sending ping request");
-        lastResponse = given()
+        Response response = execute("GET", "/ping", () -> given()
                 .spec(getRequestSpecification())
                 .when()
-                .get("/ping");
-        validateResponse(lastResponse, 201);
+                .get("/ping"));
+        validateResponse(response, 201);
         log.info("Ping request successful");
-        return lastResponse;
+        return toApiResult(response);
     }
-
-    public Response getLastResponse() {
-        return lastResponse;
-    }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,54 @@
+package com.ereservations.api;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Connect and read timeouts per endpoint. Defaults come from {@code timeout.connect.ms} and
+ * {@code timeout.read.ms}; an endpoint template can override either, e.g.
+ * {@code timeout.GET./booking/{id}.read.ms=2000} or {@code timeout.POST./auth.connect.ms=1000}.
+ * The total time for a call or flow is bounded separately by a {@link Deadline} whose default is
+ * {@code test.timeout}.
+ */
+public class RequestTimeouts {
+    private final Properties config;
+    private final long defaultConnectMillis;
+    private final long defaultReadMillis;
+    private final long defaultDeadlineMillis;
+    private final Map<String, long[]> byEndpoint = new ConcurrentHashMap<>();
+
+    public RequestTimeouts(Properties config) {
+        this.config = config;
+        this.defaultConnectMillis = Long.parseLong(config.getProperty("timeout.connect.ms", "5000"));
+        this.defaultReadMillis = Long.parseLong(config.getProperty("timeout.read.ms", "15000"));
+        this.defaultDeadlineMillis = Long.parseLong(config.getProperty("test.timeout", "30000"));
+    }
+
+    public long getDefaultConnectMillis() {
+        return defaultConnectMillis;
+    }
+
+    public long getDefaultDeadlineMillis() {
+        return defaultDeadlineMillis;
+    }
+
+    public long connectMillis(String endpoint) {
+        return resolve(endpoint)[0];
+    }
+
+    public long readMillis(String endpoint) {
+        return resolve(endpoint)[1];
+    }
+
+    // endpoint is a LatencyRegistry key such as "GET /booking/{id}"
+    private long[] resolve(String endpoint) {
+        return byEndpoint.computeIfAbsent(endpoint, key -> {
+            String prefix = "timeout." + key.replace(' ', '.') + ".";
+            return new long[] {
+                Long.parseLong(config.getProperty(prefix + "connect.ms", String.valueOf(defaultConnectMillis))),
+                Long.parseLong(config.getProperty(prefix + "read.ms", String.valueOf(defaultReadMillis)))
+            };
+        });
+    }
+}
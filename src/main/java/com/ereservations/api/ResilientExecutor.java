@@ -0,0 +1,272 @@
+package com.ereservations.api;
+
+import com.ereservations.metrics.LatencyRegistry;
+import com.ereservations.models.ResilienceStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Runs calls through a per-endpoint {@link CircuitBreaker} and retries transient failures according
+ * to a {@link RetryPolicy}, within a shared {@link RetryBudget}. Latency is recorded per attempt, so
+ * backoff waits never show up in the percentiles, and only the attempt whose outcome is returned is
+ * filed under its endpoint: attempts that were retried (typically fast 502/503s) go to a separate
+ * {@code <endpoint> [retried]} series instead of skewing the endpoint's figures.
+ */
+public class ResilientExecutor {
+    private static final Logger log = LoggerFactory.getLogger(ResilientExecutor.class);
+    static final String RETRIED_SUFFIX = " [retried]";
+    // Set while a blocking attempt runs, so LatencyFilter hands that request's time to the executor
+    private static final ThreadLocal<long[]> attemptNanos = new ThreadLocal<>();
+
+    private final RetryPolicy retryPolicy;
+    private final RetryBudget retryBudget;
+    private final LatencyRegistry latencies;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder retriesDenied = new LongAdder();
+    private final LongAdder breakerRejections = new LongAdder();
+    private final Map<String, LongAdder> transitions = new ConcurrentHashMap<>();
+
+    public ResilientExecutor(RetryPolicy retryPolicy, RetryBudget retryBudget, LatencyRegistry latencies,
+                             int failureThreshold, long openMillis) {
+        this.retryPolicy = retryPolicy;
+        this.retryBudget = retryBudget;
+        this.latencies = latencies;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    public static ResilientExecutor fromConfig(Properties config) {
+        return new ResilientExecutor(
+                RetryPolicy.fromConfig(config),
+                new RetryBudget(
+                        Double.parseDouble(config.getProperty("retry.budget.ratio", "0.2")),
+                        Integer.parseInt(config.getProperty("retry.budget.min.per.sec", "10"))),
+                LatencyRegistry.global(),
+                Integer.parseInt(config.getProperty("circuit.failure.threshold", "5")),
+                Long.parseLong(config.getProperty("circuit.open.ms", "30000")));
+    }
+
+    /**
+     * Runs a blocking call. {@code deadline} may be null; when set, no retry is attempted whose
+     * backoff would outlast it.
+     */
+    public <T> T execute(String method, String path, Deadline deadline, Supplier<T> call, ToIntFunction<T> statusOf) {
+        String endpoint = LatencyRegistry.endpointKey(method, path);
+        CircuitBreaker breaker = breaker(endpoint);
+        boolean retryable = retryPolicy.isRetryable(method);
+        long[] previousSlot = attemptNanos.get();
+        long[] elapsed = new long[1];
+        attemptNanos.set(elapsed);
+        try {
+            for (int attempt = 0; ; attempt++) {
+                admit(breaker, endpoint);
+                elapsed[0] = -1;
+                T result;
+                try {
+                    result = call.get();
+                } catch (DeadlineExceededException | CassetteMissException e) {
+                    // Neither is a transport failure: retrying cannot help and the breaker should not count
+                    // it, but a half-open probe slot taken by admit() must be handed back
+                    breaker.onAbort();
+                    throw e;
+                } catch (Exception e) {
+                    breaker.onFailure();
+                    long backoff = retryPolicy.backoffMillis(attempt + 1);
+                    if (!retryPolicy.isRetryableError(method, e)
+                            || !shouldRetry(breaker, retryable, attempt, endpoint, deadline, backoff)) {
+                        throw e;
+                    }
+                    log.warn("{} failed ({}), retrying", endpoint, e.toString());
+                    sleep(backoff);
+                    continue;
+                }
+                int statusCode = statusOf.applyAsInt(result);
+                recordOutcome(breaker, statusCode);
+                long backoff = retryPolicy.backoffMillis(attempt + 1);
+                boolean retry = retryPolicy.isRetryableStatus(statusCode)
+                        && shouldRetry(breaker, retryable, attempt, endpoint, deadline, backoff);
+                recordLatency(endpoint, elapsed[0], retry);
+                if (!retry) {
+                    return result;
+                }
+                log.warn("{} returned {}, retrying", endpoint, statusCode);
+                sleep(backoff);
+            }
+        } finally {
+            attemptNanos.set(previousSlot);
+        }
+    }
+
+    /**
+     * Called by {@link LatencyFilter} with the time of a request it just timed. Returns false when the
+     * request is not an attempt run by {@link #execute} on this thread, so the caller records it itself.
+     */
+    static boolean offerAttemptLatency(long elapsedNanos) {
+        long[] slot = attemptNanos.get();
+        if (slot == null) {
+            return false;
+        }
+        slot[0] = elapsedNanos;
+        return true;
+    }
+
+    public <T> CompletableFuture<T> executeAsync(String method, String path, Deadline deadline,
+                                                 Supplier<CompletableFuture<T>> call, ToIntFunction<T> statusOf) {
+        String endpoint = LatencyRegistry.endpointKey(method, path);
+        return attemptAsync(new AsyncCall<>(method, endpoint, breaker(endpoint), retryPolicy.isRetryable(method),
+                deadline, call, statusOf), 0);
+    }
+
+    public ResilienceStats getStats() {
+        ResilienceStats.ResilienceStatsBuilder stats = ResilienceStats.builder()
+                .attempts(attempts.sum())
+                .retries(retries.sum())
+                .retriesDeniedByBudget(retriesDenied.sum())
+                .breakerRejections(breakerRejections.sum());
+        transitions.forEach((transition, count) -> stats.breakerTransition(transition, count.sum()));
+        breakers.forEach((endpoint, breaker) -> stats.breakerState(endpoint, breaker.getState().name()));
+        return stats.build();
+    }
+
+    private <T> CompletableFuture<T> attemptAsync(AsyncCall<T> call, int attempt) {
+        CompletableFuture<T> future;
+        long start = System.nanoTime();
+        try {
+            admit(call.breaker, call.endpoint);
+            future = call.supplier.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future.handle((result, error) -> {
+            long backoff = retryPolicy.backoffMillis(attempt + 1);
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                if (cause instanceof CircuitBreakerOpenException) {
+                    return CompletableFuture.<T>failedFuture(cause);
+                }
+                if (cause instanceof DeadlineExceededException) {
+                    // Admitted but not a verdict on the endpoint; release a half-open probe slot
+                    call.breaker.onAbort();
+                    return CompletableFuture.<T>failedFuture(cause);
+                }
+                call.breaker.onFailure();
+                if (!retryPolicy.isRetryableError(call.method, cause)
+                        || !shouldRetry(call.breaker, call.retryable, attempt, call.endpoint, call.deadline, backoff)) {
+                    return CompletableFuture.<T>failedFuture(cause);
+                }
+                return retryAfter(call, attempt, backoff);
+            }
+            int statusCode = call.statusOf.applyAsInt(result);
+            recordOutcome(call.breaker, statusCode);
+            boolean retry = retryPolicy.isRetryableStatus(statusCode)
+                    && shouldRetry(call.breaker, call.retryable, attempt, call.endpoint, call.deadline, backoff);
+            recordLatency(call.endpoint, System.nanoTime() - start, retry);
+            if (!retry) {
+                return CompletableFuture.completedFuture(result);
+            }
+            return retryAfter(call, attempt, backoff);
+        }).thenCompose(next -> next);
+    }
+
+    private <T> CompletableFuture<T> retryAfter(AsyncCall<T> call, int attempt, long backoffMillis) {
+        return CompletableFuture.supplyAsync(() -> null, CompletableFuture.delayedExecutor(backoffMillis, TimeUnit.MILLISECONDS))
+                .thenCompose(ignored -> attemptAsync(call, attempt + 1));
+    }
+
+    private void admit(CircuitBreaker breaker, String endpoint) {
+        if (!breaker.tryAcquire()) {
+            breakerRejections.increment();
+            throw new CircuitBreakerOpenException(endpoint);
+        }
+        attempts.increment();
+        retryBudget.onRequest();
+    }
+
+    private boolean shouldRetry(CircuitBreaker breaker, boolean retryable, int attempt, String endpoint,
+                                Deadline deadline, long backoffMillis) {
+        // Once the breaker has opened, hand back the last outcome instead of failing with a rejection
+        if (!retryable || attempt >= retryPolicy.getMaxRetries() || breaker.getState() != CircuitBreaker.State.CLOSED) {
+            return false;
+        }
+        if (deadline != null && backoffMillis >= deadline.remainingMillis()) {
+            log.warn("Not retrying {}: backoff of {} ms would pass the deadline", endpoint, backoffMillis);
+            return false;
+        }
+        if (!retryBudget.tryAcquireRetry()) {
+            retriesDenied.increment();
+            log.warn("Retry budget exhausted, not retrying {}", endpoint);
+            return false;
+        }
+        retries.increment();
+        return true;
+    }
+
+    // elapsedNanos is negative when the attempt made no timed request (e.g. replayed from a cassette)
+    private void recordLatency(String endpoint, long elapsedNanos, boolean retried) {
+        if (elapsedNanos >= 0) {
+            latencies.record(retried ? endpoint + RETRIED_SUFFIX : endpoint, elapsedNanos);
+        }
+    }
+
+    // Only server-side errors count against the breaker; 4xx responses mean the endpoint is healthy
+    private static void recordOutcome(CircuitBreaker breaker, int statusCode) {
+        if (statusCode >= 500) {
+            breaker.onFailure();
+        } else {
+            breaker.onSuccess();
+        }
+    }
+
+    private CircuitBreaker breaker(String endpoint) {
+        return breakers.computeIfAbsent(endpoint, key -> new CircuitBreaker(key, failureThreshold, openMillis,
+                (name, from, to) -> {
+                    log.warn("Circuit breaker for {} moved from {} to {}", name, from, to);
+                    transitions.computeIfAbsent(name + " " + from + "->" + to, transition -> new LongAdder()).increment();
+                }));
+    }
+
+    private static final class AsyncCall<T> {
+        private final String method;
+        private final String endpoint;
+        private final CircuitBreaker breaker;
+        private final boolean retryable;
+        private final Deadline deadline;
+        private final Supplier<CompletableFuture<T>> supplier;
+        private final ToIntFunction<T> statusOf;
+
+        AsyncCall(String method, String endpoint, CircuitBreaker breaker, boolean retryable, Deadline deadline,
+                  Supplier<CompletableFuture<T>> supplier, ToIntFunction<T> statusOf) {
+            this.method = method;
+            this.endpoint = endpoint;
+            this.breaker = breaker;
+            this.retryable = retryable;
+            this.deadline = deadline;
+            this.supplier = supplier;
+            this.statusOf = statusOf;
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while backing off before retry", e);
+        }
+    }
+}
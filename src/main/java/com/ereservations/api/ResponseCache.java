@@ -0,0 +1,158 @@
+package com.ereservations.api;
+
+import com.ereservations.models.CacheStats;
+import io.restassured.response.Response;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Client-side cache for idempotent GETs, keyed by path and query. An entry is served without a
+ * request while younger than {@code cache.ttl.ms}; after that it is revalidated with
+ * {@code If-None-Match} or {@code If-Modified-Since} when the server sent a validator, so an
+ * unchanged resource costs a 304 instead of a full body and parse. The number of entries is bounded
+ * by LRU eviction, and clients invalidate the paths their own writes touch.
+ * <p>
+ * Hits and 304s hand the same cached value to every caller on every thread, so values must be
+ * immutable (like {@link com.ereservations.models.BookingResult}) or be copied by the caller before
+ * they escape (like the {@code int[]} of booking IDs).
+ */
+public class ResponseCache {
+    private final long ttlNanos;
+    private final int maxEntries;
+    // Access-ordered for LRU; guarded by itself
+    private final LinkedHashMap<String, Entry> entries;
+    // Bumped by every invalidation, so a fetch that raced with a write is not stored
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public ResponseCache(long ttlMillis, int maxEntries) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > ResponseCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cache configured by {@code cache.*}, or {@code null} when it is disabled.
+     */
+    public static ResponseCache fromConfig(Properties config) {
+        if (!Boolean.parseBoolean(System.getProperty("cache.enabled", config.getProperty("cache.enabled", "false")))) {
+            return null;
+        }
+        return new ResponseCache(
+                Long.parseLong(config.getProperty("cache.ttl.ms", "5000")),
+                Integer.parseInt(config.getProperty("cache.max.entries", "1000")));
+    }
+
+    /**
+     * Serves {@code path} from the cache while fresh; otherwise calls {@code fetch} with the
+     * conditional headers for any stale entry. A 304 reuses the cached value, anything else goes
+     * through {@code decode}, and 200 responses are cached.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String path, Function<Map<String, String>, Response> fetch, Function<Response, T> decode) {
+        Entry cached;
+        synchronized (entries) {
+            cached = entries.get(path);
+        }
+        if (cached != null && System.nanoTime() - cached.storedAtNanos < ttlNanos) {
+            hits.increment();
+            return (T) cached.value;
+        }
+
+        long fetchGeneration = generation.get();
+        Response response = fetch.apply(cached != null ? cached.validators() : Collections.emptyMap());
+        if (cached != null && response.getStatusCode() == 304) {
+            revalidations.increment();
+            cached.storedAtNanos = System.nanoTime();
+            return (T) cached.value;
+        }
+        misses.increment();
+        T value = decode.apply(response);
+        String etag = response.getHeader("ETag");
+        String lastModified = response.getHeader("Last-Modified");
+        if (response.getStatusCode() == 200) {
+            synchronized (entries) {
+                if (generation.get() == fetchGeneration) {
+                    entries.put(path, new Entry(value, etag, lastModified));
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Drops {@code path} and every query variant of it, e.g. {@code /booking?firstname=Jim}.
+     */
+    public void invalidate(String path) {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            for (Iterator<String> it = entries.keySet().iterator(); it.hasNext(); ) {
+                String key = it.next();
+                if (key.equals(path) || key.startsWith(path + "?")) {
+                    it.remove();
+                    invalidations.increment();
+                }
+            }
+        }
+    }
+
+    public CacheStats getStats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return CacheStats.builder()
+                .hits(hits.sum())
+                .revalidations(revalidations.sum())
+                .misses(misses.sum())
+                .evictions(evictions.sum())
+                .invalidations(invalidations.sum())
+                .size(size)
+                .build();
+    }
+
+    private static final class Entry {
+        final Object value;
+        final String etag;
+        final String lastModified;
+        volatile long storedAtNanos = System.nanoTime();
+
+        Entry(Object value, String etag, String lastModified) {
+            this.value = value;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        Map<String, String> validators() {
+            if (etag != null) {
+                return Collections.singletonMap("If-None-Match", etag);
+            }
+            if (lastModified != null) {
+                return Collections.singletonMap("If-Modified-Since", lastModified);
+            }
+            return Collections.emptyMap();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.ereservations.api;
+
+import com.ereservations.models.Booking;
+import com.ereservations.models.BookingResponse;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * Decodes response bodies with readers that are built once and shared. {@link ObjectReader} is
+ * immutable and thread-safe, so callers can decode concurrently without re-resolving deserializers.
+ */
+public final class ResponseDecoder {
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final ObjectReader bookingReader = objectMapper.readerFor(Booking.class);
+    private static final ObjectReader bookingResponseReader = objectMapper.readerFor(BookingResponse.class);
+    private static final ObjectReader treeReader = objectMapper.reader();
+
+    private ResponseDecoder() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static Booking readBooking(String body) {
+        return read(bookingReader, body);
+    }
+
+    public static BookingResponse readBookingResponse(String body) {
+        return read(bookingResponseReader, body);
+    }
+
+    public static JsonNode readTree(String body) {
+        try {
+            return treeReader.readTree(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode response body", e);
+        }
+    }
+
+    /**
+     * Reads the {@code bookingid} values of a {@code GET /booking} body token by token into a
+     * primitive array, without building a tree or boxing the IDs.
+     */
+    public static int[] readBookingIds(InputStream body) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a JSON array of booking IDs");
+            }
+            int[] ids = new int[64];
+            int count = 0;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                boolean found = false;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    parser.nextToken();
+                    if ("bookingid".equals(parser.getCurrentName()) && parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+                        if (count == ids.length) {
+                            ids = Arrays.copyOf(ids, count * 2);
+                        }
+                        ids[count++] = parser.getIntValue();
+                        found = true;
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                if (!found) {
+                    throw new IOException("Booking ID entry without an integer bookingid at " + parser.getCurrentLocation());
+                }
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new IOException("Unexpected " + parser.currentToken() + " in booking ID list");
+            }
+            return Arrays.copyOf(ids, count);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode booking IDs", e);
+        }
+    }
+
+    private static <T> T read(ObjectReader reader, String body) {
+        try {
+            return reader.readValue(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode response body", e);
+        }
+    }
+}
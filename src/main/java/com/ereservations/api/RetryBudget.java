@@ -0,0 +1,55 @@
+package com.ereservations.api;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps retries to a fraction of recent traffic so a struggling host is not hit by a retry storm.
+ * Every request deposits {@code ratio} of a token, every retry withdraws a whole one, and a small
+ * reserve of {@code minRetriesPerSecond} is topped up each second so low-traffic runs can still retry.
+ * Balances are kept in thousandths of a token to stay lock-free.
+ */
+public class RetryBudget {
+    private static final long SCALE = 1000;
+
+    private final long depositPerRequest;
+    private final long reservePerSecond;
+    private final long maxBalance;
+    private final AtomicLong balance;
+    private final AtomicLong lastTopUpSecond = new AtomicLong();
+
+    public RetryBudget(double ratio, int minRetriesPerSecond) {
+        this.depositPerRequest = Math.round(ratio * SCALE);
+        this.reservePerSecond = minRetriesPerSecond * SCALE;
+        // Never bank more than ten seconds' worth of reserve, so a long quiet period cannot fund a burst
+        this.maxBalance = Math.max(reservePerSecond * 10, SCALE);
+        this.balance = new AtomicLong(reservePerSecond);
+    }
+
+    public void onRequest() {
+        balance.updateAndGet(current -> Math.min(maxBalance, current + depositPerRequest));
+    }
+
+    /**
+     * Takes one retry token if available.
+     */
+    public boolean tryAcquireRetry() {
+        topUpReserve();
+        while (true) {
+            long current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - SCALE)) {
+                return true;
+            }
+        }
+    }
+
+    private void topUpReserve() {
+        long second = System.nanoTime() / 1_000_000_000L;
+        long previous = lastTopUpSecond.get();
+        if (second != previous && lastTopUpSecond.compareAndSet(previous, second)) {
+            balance.updateAndGet(current -> Math.max(current, Math.min(maxBalance, reservePerSecond)));
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.ereservations.api;
+
+import org.apache.http.conn.ConnectTimeoutException;
+
+import java.net.ConnectException;
+import java.net.http.HttpConnectTimeoutException;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Which calls may be retried and how long to wait between attempts. Only idempotent methods are
+ * retried, on transport errors or on the configured transient status codes; waits grow exponentially
+ * from {@code baseDelayMillis} up to {@code maxDelayMillis} with full jitter, so concurrent callers
+ * that failed together do not retry in lockstep. A DELETE is only retried after a transport error
+ * when the request cannot have reached the server: if a lost response had hidden a successful delete,
+ * the retry would get a 404/405 and report a failure for a booking that is gone.
+ */
+public class RetryPolicy {
+    private final int maxRetries;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final Set<String> retryableMethods;
+    private final Set<Integer> retryableStatusCodes;
+
+    // Safe to repeat only while the server cannot have applied the first attempt
+    private static final Set<String> APPLIED_ONCE_METHODS = Set.of("DELETE");
+
+    public RetryPolicy(int maxRetries, long baseDelayMillis, long maxDelayMillis,
+                       Set<String> retryableMethods, Set<Integer> retryableStatusCodes) {
+        this.maxRetries = maxRetries;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.retryableMethods = Set.copyOf(retryableMethods);
+        this.retryableStatusCodes = Set.copyOf(retryableStatusCodes);
+    }
+
+    public static RetryPolicy fromConfig(Properties config) {
+        return new RetryPolicy(
+                Integer.parseInt(config.getProperty("retry.count", "3")),
+                Long.parseLong(config.getProperty("retry.backoff.base.ms", "100")),
+                Long.parseLong(config.getProperty("retry.backoff.max.ms", "2000")),
+                csv(config.getProperty("retry.methods", "GET,HEAD,OPTIONS,PUT,DELETE")).stream()
+                        .map(String::toUpperCase)
+                        .collect(Collectors.toSet()),
+                csv(config.getProperty("retry.status.codes", "429,502,503,504")).stream()
+                        .map(Integer::valueOf)
+                        .collect(Collectors.toSet()));
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public boolean isRetryable(String method) {
+        return maxRetries > 0 && retryableMethods.contains(method.toUpperCase());
+    }
+
+    public boolean isRetryableStatus(int statusCode) {
+        return retryableStatusCodes.contains(statusCode);
+    }
+
+    /**
+     * Whether an attempt of {@code method} that failed with {@code error} may be repeated, given that
+     * the method itself is retryable.
+     */
+    public boolean isRetryableError(String method, Throwable error) {
+        return !APPLIED_ONCE_METHODS.contains(method.toUpperCase()) || isConnectFailure(error);
+    }
+
+    private static boolean isConnectFailure(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException || cause instanceof ConnectTimeoutException
+                    || cause instanceof HttpConnectTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Delay before retry number {@code retry} (1-based): uniformly random in [0, min(max, base * 2^(retry-1))].
+     */
+    public long backoffMillis(int retry) {
+        long ceiling = Math.min(maxDelayMillis, baseDelayMillis << Math.min(retry - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static Set<String> csv(String value) {
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(item -> !item.isEmpty())
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,131 @@
+package com.ereservations.api;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records request/response exchanges into a fixed-size ring buffer per thread instead of printing
+ * them. The buffer is only written out by {@link #dump()}, which {@link BaseApiClient} calls when a
+ * response fails validation. With a sample rate of N, every Nth exchange is also logged immediately.
+ * Slots keep only the text of an exchange, with bodies cut to {@value #MAX_BODY_CHARS} characters,
+ * so an idle thread's buffer does not pin whole responses.
+ */
+public class RingBufferLoggingFilter implements Filter {
+    private static final Logger log = LoggerFactory.getLogger(RingBufferLoggingFilter.class);
+    static final int MAX_BODY_CHARS = 2048;
+
+    private final int sampleRate;
+    private final AtomicLong exchangeCount = new AtomicLong();
+    private final ThreadLocal<ExchangeBuffer> buffers;
+
+    public RingBufferLoggingFilter(int capacity, int sampleRate) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Ring buffer capacity must be positive: " + capacity);
+        }
+        this.sampleRate = sampleRate;
+        this.buffers = ThreadLocal.withInitial(() -> new ExchangeBuffer(capacity));
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        Response response = ctx.next(requestSpec, responseSpec);
+
+        Exchange exchange = buffers.get().next();
+        exchange.method = requestSpec.getMethod();
+        exchange.uri = requestSpec.getURI();
+        exchange.requestBody = truncate(requestSpec.getBody());
+        exchange.statusCode = response.getStatusCode();
+        exchange.timeMillis = response.getTime();
+        exchange.contentType = response.getContentType();
+        exchange.responseBody = truncate(response.getBody().asString());
+
+        if (sampleRate > 0 && exchangeCount.incrementAndGet() % sampleRate == 0) {
+            log.info("Sampled exchange:\n{}", exchange);
+        }
+        return response;
+    }
+
+    /**
+     * Logs and clears the exchanges recorded on the calling thread, oldest first.
+     */
+    public void dump() {
+        ExchangeBuffer buffer = buffers.get();
+        if (buffer.size == 0) {
+            return;
+        }
+        StringBuilder out = new StringBuilder("Last ").append(buffer.size).append(" exchange(s) on ")
+                .append(Thread.currentThread().getName()).append(':');
+        int start = buffer.head - buffer.size + buffer.slots.length;
+        for (int i = 0; i < buffer.size; i++) {
+            out.append('\n').append(buffer.slots[(start + i) % buffer.slots.length]);
+        }
+        log.error(out.toString());
+        buffer.clear();
+    }
+
+    private static String truncate(Object body) {
+        if (body == null) {
+            return null;
+        }
+        String text = body instanceof byte[] ? new String((byte[]) body, StandardCharsets.UTF_8) : body.toString();
+        return text.length() <= MAX_BODY_CHARS
+                ? text
+                : text.substring(0, MAX_BODY_CHARS) + "... (" + text.length() + " chars)";
+    }
+
+    private static class ExchangeBuffer {
+        private final Exchange[] slots;
+        private int head;
+        private int size;
+
+        ExchangeBuffer(int capacity) {
+            slots = new Exchange[capacity];
+            for (int i = 0; i < capacity; i++) {
+                slots[i] = new Exchange();
+            }
+        }
+
+        Exchange next() {
+            Exchange slot = slots[head];
+            head = (head + 1) % slots.length;
+            if (size < slots.length) {
+                size++;
+            }
+            return slot;
+        }
+
+        void clear() {
+            for (Exchange slot : slots) {
+                slot.requestBody = null;
+                slot.responseBody = null;
+            }
+            size = 0;
+        }
+    }
+
+    private static class Exchange {
+        private String method;
+        private String uri;
+        private String requestBody;
+        private int statusCode;
+        private long timeMillis;
+        private String contentType;
+        private String responseBody;
+
+        @Override
+        public String toString() {
+            return String.format("%s %s -> %d %s (%d ms)%n  Request: %s%n  Response: %s",
+                    method, uri, statusCode, contentType, timeMillis, requestBody, responseBody);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.ereservations.api;
 
+import com.ereservations.models.ApiResult;
 import io.restassured.response.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -8,33 +9,28 @@ import static io.restassured.RestAssured.given;
 
 public class SystemApiClient extends BaseApiClient {
     private static final Logger log = LoggerFactory.getLogger(SystemApiClient.class);
-    private Response lastResponse;
 
-    public Response ping() {
+    public ApiResult ping() {
         log.info("Checking API availability");
-        lastResponse = given()
+        Response response = execute("GET", "/ping", () -> given()
                 .spec(getRequestSpecification())
                 .when()
-                .get("/ping");
+                .get("/ping"));
         
-        validateResponse(lastResponse, 201);
+        validateResponse(response, 201);
         log.info("API is available and responding");
-        return lastResponse;
+        return toApiResult(response);
     }
 
-    public Response health() {
+    public ApiResult health() {
         log.info("Checking API health status");
-        lastResponse = given()
+        Response response = execute("GET", "/health", () -> given()
                 .spec(getRequestSpecification())
                 .when()
-                .get("/health");
+                .get("/health"));
         
-        validateResponse(lastResponse, 201);
+        validateResponse(response, 201);
         log.info("API health check passed");
-        return lastResponse;
+        return toApiResult(response);
     }
-
-    public Response getLastResponse() {
-        return lastResponse;
-    }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,51 @@
+package com.ereservations.api;
+
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.apache.http.client.params.ClientPNames;
+import org.apache.http.params.CoreConnectionPNames;
+
+/**
+ * Applies the connect and socket timeouts chosen for the current attempt to the HTTP client that
+ * RestAssured creates for the request. {@link BaseApiClient} sets them per attempt, already capped
+ * by the active {@link Deadline}; requests sent outside it keep the client defaults.
+ */
+@SuppressWarnings("deprecation")
+public class TimeoutFilter implements Filter {
+    private static final ThreadLocal<int[]> attemptTimeouts = new ThreadLocal<>();
+
+    static int[] set(int connectMillis, int readMillis) {
+        int[] previous = attemptTimeouts.get();
+        attemptTimeouts.set(new int[] {connectMillis, readMillis});
+        return previous;
+    }
+
+    static void restore(int[] previous) {
+        if (previous != null) {
+            attemptTimeouts.set(previous);
+        } else {
+            attemptTimeouts.remove();
+        }
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        int[] timeouts = attemptTimeouts.get();
+        if (timeouts != null) {
+            RestAssuredConfig config = requestSpec.getConfig();
+            HttpClientConfig httpClientConfig = config.getHttpClientConfig()
+                    .setParam(CoreConnectionPNames.CONNECTION_TIMEOUT, timeouts[0])
+                    .setParam(ClientPNames.CONN_MANAGER_TIMEOUT, (long) timeouts[0])
+                    .setParam(CoreConnectionPNames.SO_TIMEOUT, timeouts[1]);
+            requestSpec.config(config.httpClient(httpClientConfig));
+        }
+        return ctx.next(requestSpec, responseSpec);
+    }
+}
@@ -0,0 +1,17 @@
+package com.ereservations.api;
+
+/**
+ * Thrown by the async client when a response does not carry the expected status code.
+ */
+public class UnexpectedStatusException extends RuntimeException {
+    private final int statusCode;
+
+    public UnexpectedStatusException(int statusCode) {
+        super("API call failed with status code: " + statusCode);
+        this.statusCode = statusCode;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+}
@@ -0,0 +1,96 @@
+package com.ereservations.data;
+
+import com.ereservations.models.Booking;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+/**
+ * Deterministic generator of realistic {@link Booking} records. The same seed always yields the
+ * same sequence, so load runs are reproducible while every virtual user still sends a different
+ * payload. Records can be streamed directly or written as compact JSON Lines for
+ * {@link MappedBookingFile}.
+ */
+public class BookingDataGenerator {
+    private static final Logger log = LoggerFactory.getLogger(BookingDataGenerator.class);
+    private static final ObjectWriter bookingWriter = new ObjectMapper().writerFor(Booking.class);
+
+    private static final String[] FIRST_NAMES = {
+        "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael", "Linda", "David", "Elizabeth",
+        "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Carlos", "Karen",
+        "Wei", "Aisha", "Hiroshi", "Priya", "Olga", "Mateo", "Fatima", "Lars", "Chloe", "Noah"
+    };
+    private static final String[] LAST_NAMES = {
+        "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+        "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin",
+        "Lee", "Khan", "Tanaka", "Patel", "Ivanova", "Silva", "Nielsen", "Dubois", "Kowalski", "O'Brien"
+    };
+    // Repeated entries weight the distribution; null means the field is omitted
+    private static final String[] ADDITIONAL_NEEDS = {
+        "Breakfast", "Breakfast", "Breakfast", "Lunch", "Dinner", "Late checkout", "Early checkin",
+        "Airport transfer", "Extra bed", "Parking", "Sea view", null, null, null
+    };
+    private static final LocalDate FIRST_CHECKIN = LocalDate.of(2024, 1, 1);
+
+    private final SplittableRandom random;
+
+    public BookingDataGenerator(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    public Booking next() {
+        LocalDate checkIn = FIRST_CHECKIN.plusDays(random.nextInt(730));
+        int nights = 1 + (int) Math.min(20, -Math.log(1 - random.nextDouble()) * 3);
+        return Booking.builder()
+                .firstName(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)])
+                .lastName(LAST_NAMES[random.nextInt(LAST_NAMES.length)])
+                .totalPrice(nights * (60 + random.nextInt(240)))
+                .depositPaid(random.nextInt(100) < 80)
+                .bookingDates(new Booking.BookingDates(checkIn.toString(), checkIn.plusDays(nights).toString()))
+                .additionalNeeds(ADDITIONAL_NEEDS[random.nextInt(ADDITIONAL_NEEDS.length)])
+                .build();
+    }
+
+    /**
+     * Returns a lazily generated stream of {@code count} bookings.
+     */
+    public Stream<Booking> stream(long count) {
+        return Stream.generate(this::next).limit(count);
+    }
+
+    /**
+     * Writes {@code count} bookings to {@code file}, one compact JSON object per line.
+     */
+    public void writeTo(Path file, long count) throws IOException {
+        if (file.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16)) {
+            for (long i = 0; i < count; i++) {
+                out.write(bookingWriter.writeValueAsBytes(next()));
+                out.write('\n');
+            }
+        }
+        log.info("Wrote {} generated bookings to {}", count, file);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BookingDataGenerator <file> <count> [seed]");
+            System.exit(1);
+        }
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42L;
+        new BookingDataGenerator(seed).writeTo(Paths.get(args[0]), Long.parseLong(args[1]));
+    }
+}
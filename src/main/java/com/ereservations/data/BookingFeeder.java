@@ -0,0 +1,91 @@
+package com.ereservations.data;
+
+import com.ereservations.models.Booking;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Endless feeder of booking payloads in the shape Gatling expects ({@code Iterator<Map<String, Object>>}).
+ * Each record exposes the compact JSON under {@code bookingJson}. File-backed feeders wrap around
+ * to the start of the file when it is exhausted and keep it open until {@link #close()}.
+ */
+public class BookingFeeder implements Iterator<Map<String, Object>>, AutoCloseable {
+    public static final String BOOKING_JSON = "bookingJson";
+    private static final ObjectWriter bookingWriter = new ObjectMapper().writerFor(Booking.class);
+
+    private final Supplier<Iterator<String>> source;
+    // The mapped file behind a file-backed feeder, null for generated ones
+    private final MappedBookingFile file;
+    private Iterator<String> current;
+
+    private BookingFeeder(Supplier<Iterator<String>> source, MappedBookingFile file) {
+        this.source = source;
+        this.file = file;
+        this.current = source.get();
+    }
+
+    public static BookingFeeder fromFile(Path file) {
+        try {
+            MappedBookingFile mapped = new MappedBookingFile(file);
+            if (mapped.size() == 0) {
+                mapped.close();
+                throw new IllegalArgumentException("Booking data file is empty: " + file);
+            }
+            return new BookingFeeder(mapped::lines, mapped);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open booking data file " + file, e);
+        }
+    }
+
+    public static BookingFeeder generated(long seed) {
+        BookingDataGenerator generator = new BookingDataGenerator(seed);
+        return new BookingFeeder(() -> new Iterator<String>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public String next() {
+                try {
+                    return bookingWriter.writeValueAsString(generator.next());
+                } catch (JsonProcessingException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }, null);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return true;
+    }
+
+    @Override
+    public synchronized Map<String, Object> next() {
+        if (!current.hasNext()) {
+            current = source.get();
+        }
+        return Collections.singletonMap(BOOKING_JSON, current.next());
+    }
+
+    @Override
+    public void close() {
+        if (file != null) {
+            try {
+                file.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to close booking data file", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.ereservations.data;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * IDs of the bookings this process created on one host and has not deleted yet, so they can be
+ * torn down at the end of a suite or simulation. IDs are kept in an open-addressing {@code int} set
+ * (no boxing) and every change is appended to a journal: the ID when created, its complement
+ * ({@code ~id}) when deleted. The journal starts with the base URL the IDs belong to, and opening it
+ * replays it, so bookings left behind by a run that crashed before its teardown are picked up by the
+ * next run against the same host. A journal written for another host is refused rather than
+ * replayed, since its IDs name other people's bookings there. {@link #close()} rewrites the journal
+ * with only the remaining IDs, or deletes it when none remain.
+ * <p>
+ * A journal is held under an exclusive file lock while open. When another process (a concurrent
+ * suite or simulation against the same host) holds it, this process journals to
+ * {@code <name>.<pid>.journal} beside it instead. On open, sibling journals whose lock is free, i.e.
+ * whose owner has exited, are adopted and deleted; journals of live processes are left alone, so
+ * their bookings are never torn down under them.
+ *
+ * <pre>
+ * int magic, str baseUrl   (str = unsigned short length + UTF-8 bytes)
+ * int entry...             id when created, ~id when deleted
+ * </pre>
+ */
+public final class CreatedBookingTracker implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(CreatedBookingTracker.class);
+    // Booking IDs are positive, so 0 marks a free slot
+    private static final int FREE = 0;
+    private static final int MAGIC = 0x43424a31; // "CBJ1"
+
+    private final Path journal;
+    private final String baseUrl;
+    private final FileChannel channel;
+    private final ByteBuffer record = ByteBuffer.allocate(Integer.BYTES);
+    private int[] slots = new int[64];
+    private int size;
+
+    private CreatedBookingTracker(Path journal, String baseUrl, FileChannel channel) {
+        this.journal = journal;
+        this.baseUrl = baseUrl;
+        this.channel = channel;
+    }
+
+    /**
+     * Opens (or creates) the journal of bookings created on {@code baseUrl}, falling back to a
+     * per-process journal when another process holds it. Fails without touching the file if it was
+     * written for a different host or is not a journal.
+     */
+    public static CreatedBookingTracker open(Path journal, String baseUrl) throws IOException {
+        Path dir = journal.toAbsolutePath().getParent();
+        if (dir != null) {
+            Files.createDirectories(dir);
+        }
+        CreatedBookingTracker tracker = lock(journal, baseUrl);
+        if (tracker == null) {
+            Path own = journal.resolveSibling(stem(journal) + "." + ProcessHandle.current().pid() + ".journal");
+            tracker = lock(own, baseUrl);
+            if (tracker == null) {
+                throw new IOException("Booking journal " + own + " is locked by another process");
+            }
+            log.info("Booking journal {} is in use by another process; journaling to {}", journal, own);
+        }
+        try {
+            tracker.adoptOrphans(journal);
+            tracker.rewrite();
+            if (tracker.size > 0) {
+                log.info("Found {} bookings left behind on {} by an earlier run in {}", tracker.size, baseUrl,
+                        tracker.journal);
+            }
+            return tracker;
+        } catch (IOException | RuntimeException e) {
+            tracker.channel.close();
+            throw e;
+        }
+    }
+
+    // Returns null when another process holds the journal
+    private static CreatedBookingTracker lock(Path journal, String baseUrl) throws IOException {
+        FileChannel channel = FileChannel.open(journal,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (tryLock(channel) == null) {
+                channel.close();
+                return null;
+            }
+            CreatedBookingTracker tracker = new CreatedBookingTracker(journal, baseUrl, channel);
+            if (channel.size() > 0 && !tracker.replay(channel)) {
+                throw new IOException("Booking journal " + journal + " was not written for " + baseUrl
+                        + "; refusing to replay it");
+            }
+            return tracker;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // Held by another tracker in this JVM
+            return null;
+        }
+    }
+
+    private static String stem(Path journal) {
+        String name = journal.getFileName().toString();
+        return name.endsWith(".journal") ? name.substring(0, name.length() - ".journal".length()) : name;
+    }
+
+    // Takes over the IDs of sibling journals for this host whose owning process has exited
+    private void adoptOrphans(Path primary) throws IOException {
+        String prefix = stem(primary) + ".";
+        String primaryName = primary.getFileName().toString();
+        DirectoryStream.Filter<Path> siblings = path -> {
+            String name = path.getFileName().toString();
+            return name.equals(primaryName) || name.startsWith(prefix) && name.endsWith(".journal");
+        };
+        try (DirectoryStream<Path> candidates = Files.newDirectoryStream(journal.toAbsolutePath().getParent(), siblings)) {
+            for (Path candidate : candidates) {
+                if (Files.isSameFile(candidate, journal)) {
+                    continue;
+                }
+                adopt(candidate);
+            }
+        }
+    }
+
+    private void adopt(Path orphan) throws IOException {
+        try (FileChannel other = FileChannel.open(orphan, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (tryLock(other) == null) {
+                return;
+            }
+            int before = size;
+            if (!replay(other)) {
+                // A journal for another host whose name happens to share the prefix
+                return;
+            }
+            // Emptied while still locked, so a process that opened it meanwhile finds nothing to replay
+            other.truncate(0);
+            Files.deleteIfExists(orphan);
+            log.info("Adopted {} bookings from the journal of an exited run {}", size - before, orphan);
+        } catch (NoSuchFileException e) {
+            // Adopted by another process in the meantime
+        }
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public synchronized void add(int bookingId) {
+        if (bookingId > 0 && insert(bookingId)) {
+            append(bookingId);
+        }
+    }
+
+    public synchronized void remove(int bookingId) {
+        if (bookingId > 0 && delete(bookingId)) {
+            append(~bookingId);
+        }
+    }
+
+    public synchronized boolean contains(int bookingId) {
+        return bookingId > 0 && slots[indexOf(bookingId)] == bookingId;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized int[] toArray() {
+        int[] ids = new int[size];
+        int count = 0;
+        for (int slot : slots) {
+            if (slot != FREE) {
+                ids[count++] = slot;
+            }
+        }
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    public Path getJournal() {
+        return journal;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!channel.isOpen()) {
+            return;
+        }
+        try {
+            if (size == 0) {
+                // Deleted before the lock is released, so no other process adopts a stale file
+                Files.deleteIfExists(journal);
+                channel.close();
+                return;
+            }
+            rewrite();
+            channel.close();
+            log.warn("{} created bookings were not deleted; kept in {} for the next run", size, journal);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compact booking journal " + journal, e);
+        }
+    }
+
+    // Replaces the journal with the header and the current IDs
+    private void rewrite() throws IOException {
+        int[] ids = toArray();
+        ByteBuffer compacted = ByteBuffer.allocate(ids.length * Integer.BYTES);
+        compacted.asIntBuffer().put(ids);
+        channel.truncate(0);
+        writeHeader();
+        while (compacted.hasRemaining()) {
+            channel.write(compacted);
+        }
+    }
+
+    private void writeHeader() throws IOException {
+        byte[] url = baseUrl.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer header = ByteBuffer.allocate(Integer.BYTES + Short.BYTES + url.length);
+        header.putInt(MAGIC).putShort((short) url.length).put(url).flip();
+        channel.position(0);
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+    }
+
+    // Applies the entries of a journal written for this tracker's host; false for any other file
+    private boolean replay(FileChannel source) throws IOException {
+        ByteBuffer contents = ByteBuffer.allocate((int) source.size());
+        source.position(0);
+        while (contents.hasRemaining()) {
+            if (source.read(contents) < 0) {
+                break;
+            }
+        }
+        contents.flip();
+        String recordedUrl = null;
+        if (contents.remaining() >= Integer.BYTES + Short.BYTES && contents.getInt() == MAGIC) {
+            byte[] url = new byte[contents.getShort() & 0xFFFF];
+            if (contents.remaining() >= url.length) {
+                contents.get(url);
+                recordedUrl = new String(url, StandardCharsets.UTF_8);
+            }
+        }
+        if (!baseUrl.equals(recordedUrl)) {
+            return false;
+        }
+        // A torn trailing record from a crash is dropped
+        while (contents.remaining() >= Integer.BYTES) {
+            int entry = contents.getInt();
+            if (entry > 0) {
+                insert(entry);
+            } else if (entry < 0) {
+                delete(~entry);
+            }
+        }
+        return true;
+    }
+
+    private void append(int entry) {
+        if (!channel.isOpen()) {
+            // Already compacted at shutdown; late calls only update the in-memory set
+            return;
+        }
+        record.clear();
+        record.putInt(entry).flip();
+        try {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to booking journal " + journal, e);
+        }
+    }
+
+    // Linear probing over a power-of-two table kept at most half full
+    private int indexOf(int bookingId) {
+        int mask = slots.length - 1;
+        int index = mix(bookingId) & mask;
+        while (slots[index] != FREE && slots[index] != bookingId) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private boolean insert(int bookingId) {
+        int index = indexOf(bookingId);
+        if (slots[index] == bookingId) {
+            return false;
+        }
+        slots[index] = bookingId;
+        if (++size * 2 > slots.length) {
+            int[] old = slots;
+            slots = new int[old.length * 2];
+            for (int id : old) {
+                if (id != FREE) {
+                    slots[indexOf(id)] = id;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean delete(int bookingId) {
+        int mask = slots.length - 1;
+        int index = indexOf(bookingId);
+        if (slots[index] != bookingId) {
+            return false;
+        }
+        slots[index] = FREE;
+        size--;
+        // Shift back later entries of the probe run so lookups never stop at the new gap
+        int next = (index + 1) & mask;
+        while (slots[next] != FREE) {
+            int id = slots[next];
+            slots[next] = FREE;
+            slots[indexOf(id)] = id;
+            next = (next + 1) & mask;
+        }
+        return true;
+    }
+
+    private static int mix(int value) {
+        int h = value * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,115 @@
+package com.ereservations.data;
+
+import com.ereservations.api.ResponseDecoder;
+import com.ereservations.models.Booking;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads a JSON Lines booking file through memory-mapped windows, so files far larger than the heap
+ * can be streamed. Each iterator owns its own window and can be used independently on its thread.
+ */
+public class MappedBookingFile implements AutoCloseable {
+    private static final long WINDOW_SIZE = 256L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long size;
+
+    public MappedBookingFile(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns the raw JSON of each booking, in file order.
+     */
+    public Iterator<String> lines() {
+        return new LineIterator();
+    }
+
+    public Stream<String> jsonLines() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(lines(), Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    public Stream<Booking> bookings() {
+        return jsonLines().map(ResponseDecoder::readBooking);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private class LineIterator implements Iterator<String> {
+        private MappedByteBuffer window;
+        private long windowStart;
+        private long position;
+
+        @Override
+        public boolean hasNext() {
+            return position < size;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (window == null || position >= windowStart + window.limit()) {
+                map(position);
+            }
+            int offset = (int) (position - windowStart);
+            int end = scanToNewline(offset);
+            if (end == window.limit() && windowStart + end < size) {
+                // The line crosses the window boundary, so remap starting at the line
+                map(position);
+                offset = 0;
+                end = scanToNewline(0);
+                if (end == window.limit() && windowStart + end < size) {
+                    throw new IllegalStateException("Line at offset " + position + " exceeds the mapping window");
+                }
+            }
+
+            byte[] line = new byte[end - offset];
+            ByteBuffer view = window.duplicate();
+            view.position(offset);
+            view.get(line);
+            position = windowStart + end + 1;
+            return new String(line, StandardCharsets.UTF_8);
+        }
+
+        private int scanToNewline(int from) {
+            int end = from;
+            while (end < window.limit() && window.get(end) != '\n') {
+                end++;
+            }
+            return end;
+        }
+
+        private void map(long start) {
+            try {
+                window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_SIZE, size - start));
+                windowStart = start;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to map booking file", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.ereservations.metrics;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Compares a run with a stored baseline row by row. A p95 increase only counts as a regression
+ * when it exceeds the tolerance, both sides have at least {@code minSamples} samples and Welch's t
+ * on the means is significant at roughly 95%, so ordinary run-to-run noise does not fail the build.
+ * Throughput, which has no per-sample variance, is gated by the tolerance and sample floor alone,
+ * and only when the workload has a fixed arrival rate; otherwise it follows latency and is only
+ * reported.
+ * Per-test rows hold one duration per test invocation, far below any useful sample floor, so they
+ * are reported for information only and never fail the comparison.
+ */
+public class BaselineComparison {
+    // Two-sided 95% critical value of the normal distribution, a fair stand-in for t at these sample sizes
+    private static final double T_CRITICAL = 1.96;
+
+    private final List<Delta> deltas;
+
+    private BaselineComparison(List<Delta> deltas) {
+        this.deltas = Collections.unmodifiableList(deltas);
+    }
+
+    public static BaselineComparison compare(PerformanceBaseline baseline, PerformanceBaseline current,
+                                             double p95Tolerance, double throughputTolerance,
+                                             boolean gateThroughput, long minSamples) {
+        List<Delta> deltas = new ArrayList<>();
+        for (Map.Entry<String, PerformanceBaseline.Entry> entry : current.getEntries().entrySet()) {
+            PerformanceBaseline.Entry before = baseline.getEntries().get(entry.getKey());
+            if (before != null) {
+                deltas.add(compare(before, entry.getValue(), p95Tolerance, throughputTolerance, gateThroughput,
+                        minSamples));
+            }
+        }
+        return new BaselineComparison(deltas);
+    }
+
+    public List<Delta> getDeltas() {
+        return deltas;
+    }
+
+    public List<Delta> getRegressions() {
+        return deltas.stream().filter(Delta::isRegression).collect(Collectors.toList());
+    }
+
+    public boolean hasRegressions() {
+        return deltas.stream().anyMatch(Delta::isRegression);
+    }
+
+    public String toReport() {
+        StringBuilder report = new StringBuilder(String.format(Locale.ROOT, "%-8s %-48s %8s %10s %10s %8s %8s %8s  %s%n",
+                "kind", "name", "count", "p95_ms", "base_p95", "p95_%", "tput_%", "welch_t", "verdict"));
+        for (Delta delta : deltas) {
+            PerformanceBaseline.Entry current = delta.getCurrent();
+            report.append(String.format(Locale.ROOT, "%-8s %-48s %8d %10.3f %10.3f %+8.1f %+8.1f %8.2f  %s%n",
+                    current.getKind(), current.getName(), current.getCount(), current.getP95Millis(),
+                    delta.getBaseline().getP95Millis(), delta.getP95Change() * 100, delta.getThroughputChange() * 100,
+                    delta.getWelchT(), delta.getVerdict()));
+        }
+        return report.toString();
+    }
+
+    private static Delta compare(PerformanceBaseline.Entry before, PerformanceBaseline.Entry after,
+                                 double p95Tolerance, double throughputTolerance, boolean gateThroughput,
+                                 long minSamples) {
+        double p95Change = relativeChange(before.getP95Millis(), after.getP95Millis());
+        double throughputChange = relativeChange(before.getThroughputPerSecond(), after.getThroughputPerSecond());
+        double welchT = welchT(before, after);
+        boolean enoughSamples = before.getCount() >= minSamples && after.getCount() >= minSamples;
+
+        String verdict = enoughSamples ? "ok" : "too few samples";
+        boolean regression = false;
+        if (after.getKind() == PerformanceBaseline.Kind.TEST) {
+            verdict = "informational";
+        } else if (enoughSamples && p95Change > p95Tolerance && welchT >= T_CRITICAL) {
+            regression = true;
+            verdict = String.format(Locale.ROOT, "p95 regressed beyond %.0f%%", p95Tolerance * 100);
+        } else if (gateThroughput && enoughSamples && before.getThroughputPerSecond() > 0
+                && throughputChange < -throughputTolerance) {
+            regression = true;
+            verdict = String.format(Locale.ROOT, "throughput regressed beyond %.0f%%", throughputTolerance * 100);
+        }
+        return new Delta(before, after, p95Change, throughputChange, welchT, regression, verdict);
+    }
+
+    private static double relativeChange(double before, double after) {
+        return before > 0 ? after / before - 1 : 0;
+    }
+
+    // Positive when the current mean is slower than the baseline mean
+    private static double welchT(PerformanceBaseline.Entry before, PerformanceBaseline.Entry after) {
+        if (before.getCount() == 0 || after.getCount() == 0) {
+            return 0;
+        }
+        double standardError = Math.sqrt(variance(before) / before.getCount() + variance(after) / after.getCount());
+        double difference = after.getMeanMillis() - before.getMeanMillis();
+        if (standardError == 0) {
+            return difference > 0 ? Double.POSITIVE_INFINITY : difference < 0 ? Double.NEGATIVE_INFINITY : 0;
+        }
+        return difference / standardError;
+    }
+
+    private static double variance(PerformanceBaseline.Entry entry) {
+        return entry.getStdDevMillis() * entry.getStdDevMillis();
+    }
+
+    @Value
+    public static class Delta {
+        PerformanceBaseline.Entry baseline;
+
+        PerformanceBaseline.Entry current;
+
+        double p95Change;
+
+        double throughputChange;
+
+        double welchT;
+
+        boolean regression;
+
+        String verdict;
+    }
+}
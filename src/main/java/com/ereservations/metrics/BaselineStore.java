@@ -0,0 +1,123 @@
+package com.ereservations.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Keeps one {@link PerformanceBaseline} file per branch or tag and suite under
+ * {@code perf.baseline.dir}, e.g. {@code perf-baselines/main-sanity.csv}. Settings are system
+ * properties so the TestNG listener and the soak runner share them:
+ * <ul>
+ *   <li>{@code perf.baseline.mode}: {@code off} (default), {@code record} (write this run as the
+ *       baseline without comparing), {@code compare} (seeds the file when missing) or {@code update}
+ *       (compare, then overwrite with this run). The soak profile turns on {@code compare}.</li>
+ *   <li>{@code perf.baseline.name}: defaults to the current git branch, or the commit when detached</li>
+ *   <li>{@code perf.baseline.p95.tolerance} and {@code perf.baseline.throughput.tolerance}: allowed
+ *       relative change, default 0.2</li>
+ *   <li>{@code perf.baseline.min.samples}: rows with fewer samples are reported but never fail, default 20</li>
+ * </ul>
+ * A run whose workload settings differ from the baseline's is not compared (it could only show a
+ * bogus throughput change); re-record with {@code perf.baseline.mode=update} when the change is intended.
+ * Throughput only fails the comparison for workloads that declare a fixed arrival rate
+ * ({@link PerformanceBaseline#ARRIVAL_RATE}); for closed workloads such as the TestNG suites or the
+ * soak run it just mirrors latency and is reported for information. Baseline files are git-ignored;
+ * commit one deliberately with {@code git add -f} to share it.
+ */
+public class BaselineStore {
+    private static final Logger log = LoggerFactory.getLogger(BaselineStore.class);
+
+    private final String mode;
+    private final Path file;
+    private final Path reportFile;
+    private final double p95Tolerance;
+    private final double throughputTolerance;
+    private final long minSamples;
+
+    private BaselineStore(String suite) {
+        this.mode = System.getProperty("perf.baseline.mode", "off");
+        String name = System.getProperty("perf.baseline.name", currentGitRef());
+        this.file = Paths.get(System.getProperty("perf.baseline.dir", "perf-baselines"))
+                .resolve(sanitize(name) + "-" + sanitize(suite) + ".csv");
+        this.reportFile = Paths.get("target", "baseline-comparison-" + sanitize(suite) + ".txt");
+        this.p95Tolerance = Double.parseDouble(System.getProperty("perf.baseline.p95.tolerance", "0.2"));
+        this.throughputTolerance = Double.parseDouble(System.getProperty("perf.baseline.throughput.tolerance", "0.2"));
+        this.minSamples = Long.getLong("perf.baseline.min.samples", 20L);
+    }
+
+    public static BaselineStore forSuite(String suite) {
+        return new BaselineStore(suite);
+    }
+
+    /**
+     * Compares {@code current} with the stored baseline and writes the report to {@code target/}.
+     * Returns empty when disabled or only recording, when there is nothing to compare, when the
+     * workloads differ, or when this run only seeded the baseline.
+     */
+    public Optional<BaselineComparison> check(PerformanceBaseline current) {
+        if ("off".equalsIgnoreCase(mode) || current.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            if ("record".equalsIgnoreCase(mode)) {
+                current.write(file, "Baseline recorded " + Instant.now());
+                log.info("Recorded performance baseline {}", file);
+                return Optional.empty();
+            }
+            BaselineComparison comparison = null;
+            boolean exists = Files.exists(file);
+            if (exists) {
+                PerformanceBaseline baseline = PerformanceBaseline.read(file);
+                String report;
+                if (baseline.getWorkload().equals(current.getWorkload())) {
+                    comparison = BaselineComparison.compare(baseline, current, p95Tolerance,
+                            throughputTolerance, current.getWorkload().containsKey(PerformanceBaseline.ARRIVAL_RATE),
+                            minSamples);
+                    report = comparison.toReport();
+                } else {
+                    report = "Not compared: workload differs from the baseline" + System.lineSeparator()
+                            + "  baseline: " + baseline.describeWorkload() + System.lineSeparator()
+                            + "  this run: " + current.describeWorkload() + System.lineSeparator();
+                }
+                Files.createDirectories(reportFile.toAbsolutePath().getParent());
+                Files.write(reportFile, report.getBytes(StandardCharsets.UTF_8));
+                log.info("Compared run with baseline {}:{}{}", file, System.lineSeparator(), report);
+            }
+            if (!exists || "update".equalsIgnoreCase(mode)) {
+                current.write(file, "Baseline recorded " + Instant.now());
+                log.info("Recorded performance baseline {}", file);
+            }
+            return Optional.ofNullable(comparison);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compare with performance baseline " + file, e);
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    private static String currentGitRef() {
+        try {
+            String head = new String(Files.readAllBytes(Paths.get(".git", "HEAD")), StandardCharsets.UTF_8).trim();
+            if (head.startsWith("ref: refs/heads/")) {
+                return head.substring("ref: refs/heads/".length());
+            }
+            return head.length() > 12 ? head.substring(0, 12) : head;
+        } catch (IOException e) {
+            return "local";
+        }
+    }
+
+    private static String sanitize(String name) {
+        return name.replaceAll("[^A-Za-z0-9._-]+", "_");
+    }
+}
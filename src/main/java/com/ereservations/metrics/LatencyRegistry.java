@@ -0,0 +1,105 @@
+package com.ereservations.metrics;
+
+import org.HdrHistogram.AtomicHistogram;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Per-endpoint latency histograms keyed by method and path template, e.g. {@code GET /booking/{id}}.
+ * Each key owns a fixed-size {@link AtomicHistogram}, so recording is lock-free and memory does not
+ * grow with the number of samples. Values are tracked in microseconds up to one minute.
+ */
+public class LatencyRegistry {
+    private static final Logger log = LoggerFactory.getLogger(LatencyRegistry.class);
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+    private static final LatencyRegistry GLOBAL = new LatencyRegistry();
+
+    private final Map<String, AtomicHistogram> histograms = new ConcurrentHashMap<>();
+
+    public static LatencyRegistry global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Builds the registry key for a request, replacing numeric path segments with {@code {id}} and
+     * dropping the query string.
+     */
+    public static String endpointKey(String method, String path) {
+        int query = path.indexOf('?');
+        String template = NUMERIC_SEGMENT.matcher(query >= 0 ? path.substring(0, query) : path).replaceAll("/{id}");
+        return method.toUpperCase() + " " + template;
+    }
+
+    public void record(String method, String path, long elapsedNanos) {
+        record(endpointKey(method, path), elapsedNanos);
+    }
+
+    public void record(String endpoint, long elapsedNanos) {
+        long micros = Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), 1), HIGHEST_TRACKABLE_MICROS);
+        histograms.computeIfAbsent(endpoint, key -> new AtomicHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS))
+                .recordValue(micros);
+    }
+
+    /**
+     * Returns a point-in-time summary per endpoint, sorted by endpoint.
+     */
+    public Map<String, LatencySummary> snapshot() {
+        Map<String, LatencySummary> summaries = new TreeMap<>();
+        histograms.forEach((endpoint, histogram) -> summaries.put(endpoint, summarize(histogram.copy())));
+        return summaries;
+    }
+
+    public void reset() {
+        histograms.values().forEach(AtomicHistogram::reset);
+    }
+
+    public void writeReport(Path file) {
+        Map<String, LatencySummary> summaries = snapshot();
+        if (summaries.isEmpty()) {
+            return;
+        }
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                writer.write("endpoint,count,p50_ms,p90_ms,p95_ms,p99_ms,p99.9_ms,max_ms\n");
+                for (Map.Entry<String, LatencySummary> entry : summaries.entrySet()) {
+                    LatencySummary summary = entry.getValue();
+                    writer.write(String.format("%s,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f%n", entry.getKey(), summary.getCount(),
+                            summary.getP50Millis(), summary.getP90Millis(), summary.getP95Millis(), summary.getP99Millis(),
+                            summary.getP999Millis(), summary.getMaxMillis()));
+                }
+            }
+            log.info("Wrote latency report for {} endpoint(s) to {}", summaries.size(), file);
+        } catch (IOException e) {
+            log.error("Failed to write latency report to {}", file, e);
+        }
+    }
+
+    private static LatencySummary summarize(Histogram histogram) {
+        return LatencySummary.builder()
+                .count(histogram.getTotalCount())
+                .p50Millis(histogram.getValueAtPercentile(50) / 1000.0)
+                .p90Millis(histogram.getValueAtPercentile(90) / 1000.0)
+                .p95Millis(histogram.getValueAtPercentile(95) / 1000.0)
+                .p99Millis(histogram.getValueAtPercentile(99) / 1000.0)
+                .p999Millis(histogram.getValueAtPercentile(99.9) / 1000.0)
+                .maxMillis(histogram.getMaxValue() / 1000.0)
+                .meanMillis(histogram.getMean() / 1000.0)
+                .stdDevMillis(histogram.getStdDeviation() / 1000.0)
+                .build();
+    }
+}
@@ -0,0 +1,26 @@
+package com.ereservations.metrics;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class LatencySummary {
+    long count;
+
+    double p50Millis;
+
+    double p90Millis;
+
+    double p95Millis;
+
+    double p99Millis;
+
+    double p999Millis;
+
+    double maxMillis;
+
+    double meanMillis;
+
+    double stdDevMillis;
+}
@@ -0,0 +1,143 @@
+package com.ereservations.metrics;
+
+import lombok.Value;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compact performance record of one run: a row per endpoint with latency statistics and
+ * throughput, and a row per test method with its duration statistics. Stored as CSV so a baseline
+ * per branch or tag stays small enough to commit and easy to diff. The settings that shape the load
+ * (target, users, cache, pool size, ...) are stored as a {@code # workload:} line, since numbers
+ * from different workloads are not comparable.
+ */
+public class PerformanceBaseline {
+    // Workload setting of open workloads that start requests at a fixed rate, the only ones whose throughput is gated
+    public static final String ARRIVAL_RATE = "arrival.rate";
+    private static final String HEADER = "kind,count,mean_ms,stddev_ms,p95_ms,throughput_per_s,name";
+    private static final String WORKLOAD_PREFIX = "# workload: ";
+
+    public enum Kind { ENDPOINT, TEST }
+
+    // Keyed by kind and name, e.g. "ENDPOINT GET /booking/{id}"
+    private final Map<String, Entry> entries;
+    private final Map<String, String> workload;
+
+    private PerformanceBaseline(Map<String, Entry> entries, Map<String, String> workload) {
+        this.entries = Collections.unmodifiableMap(entries);
+        this.workload = Collections.unmodifiableMap(new TreeMap<>(workload));
+    }
+
+    /**
+     * Captures a run. Endpoint throughput is the request count over the run's wall-clock time;
+     * test rows carry no throughput.
+     */
+    public static PerformanceBaseline fromRun(Map<String, LatencySummary> endpoints, Map<String, LatencySummary> tests,
+                                              double elapsedSeconds, Map<String, String> workload) {
+        Map<String, Entry> entries = new TreeMap<>();
+        endpoints.forEach((name, summary) -> put(entries, toEntry(Kind.ENDPOINT, name, summary,
+                elapsedSeconds > 0 ? summary.getCount() / elapsedSeconds : 0)));
+        tests.forEach((name, summary) -> put(entries, toEntry(Kind.TEST, name, summary, 0)));
+        return new PerformanceBaseline(entries, workload);
+    }
+
+    public static PerformanceBaseline read(Path file) throws IOException {
+        Map<String, Entry> entries = new TreeMap<>();
+        Map<String, String> workload = new TreeMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(WORKLOAD_PREFIX)) {
+                    for (String setting : line.substring(WORKLOAD_PREFIX.length()).split(";")) {
+                        int separator = setting.indexOf('=');
+                        if (separator > 0) {
+                            workload.put(setting.substring(0, separator), setting.substring(separator + 1));
+                        }
+                    }
+                    continue;
+                }
+                if (line.isEmpty() || line.startsWith("#") || line.equals(HEADER)) {
+                    continue;
+                }
+                // The name goes last so it may contain commas
+                String[] fields = line.split(",", 7);
+                if (fields.length != 7) {
+                    throw new IOException("Malformed baseline row in " + file + ": " + line);
+                }
+                put(entries, new Entry(Kind.valueOf(fields[0]), fields[6], Long.parseLong(fields[1]),
+                        Double.parseDouble(fields[2]), Double.parseDouble(fields[3]),
+                        Double.parseDouble(fields[4]), Double.parseDouble(fields[5])));
+            }
+        }
+        return new PerformanceBaseline(entries, workload);
+    }
+
+    public void write(Path file, String description) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("# " + description + "\n");
+            writer.write(WORKLOAD_PREFIX + describeWorkload() + "\n");
+            writer.write(HEADER + "\n");
+            for (Entry entry : entries.values()) {
+                // Locale.ROOT keeps the decimal point parseable on any machine
+                writer.write(String.format(Locale.ROOT, "%s,%d,%.3f,%.3f,%.3f,%.3f,%s%n", entry.getKind(), entry.getCount(),
+                        entry.getMeanMillis(), entry.getStdDevMillis(), entry.getP95Millis(),
+                        entry.getThroughputPerSecond(), entry.getName()));
+            }
+        }
+    }
+
+    public Map<String, Entry> getEntries() {
+        return entries;
+    }
+
+    public Map<String, String> getWorkload() {
+        return workload;
+    }
+
+    public String describeWorkload() {
+        StringBuilder description = new StringBuilder();
+        workload.forEach((key, value) -> description.append(description.length() > 0 ? ";" : "")
+                .append(key).append('=').append(value));
+        return description.toString();
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    private static Entry toEntry(Kind kind, String name, LatencySummary summary, double throughputPerSecond) {
+        return new Entry(kind, name, summary.getCount(), summary.getMeanMillis(), summary.getStdDevMillis(),
+                summary.getP95Millis(), throughputPerSecond);
+    }
+
+    private static void put(Map<String, Entry> entries, Entry entry) {
+        entries.put(entry.getKind() + " " + entry.getName(), entry);
+    }
+
+    @Value
+    public static class Entry {
+        Kind kind;
+
+        String name;
+
+        long count;
+
+        double meanMillis;
+
+        double stdDevMillis;
+
+        double p95Millis;
+
+        double throughputPerSecond;
+    }
+}
@@ -0,0 +1,33 @@
+package com.ereservations.models;
+
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+import java.util.Map;
+
+@Value
+@Builder
+public class ApiResult {
+    int statusCode;
+
+    String body;
+
+    @Singular
+    Map<String, String> headers;
+
+    long responseTimeMillis;
+
+    public boolean isSuccessful() {
+        return statusCode >= 200 && statusCode < 300;
+    }
+
+    public String getHeader(String name) {
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name)) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+}
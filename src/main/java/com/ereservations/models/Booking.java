@@ -31,6 +31,15 @@ public class Booking {
     @JsonProperty("additionalneeds")
     private String additionalNeeds;
 
+    /**
+     * Deep copy, so a booking that is shared (e.g. cached) can be handed out without exposing it to changes.
+     */
+    public Booking copy() {
+        return new Booking(firstName, lastName, totalPrice, depositPaid,
+                bookingDates == null ? null : new BookingDates(bookingDates.getCheckIn(), bookingDates.getCheckOut()),
+                additionalNeeds);
+    }
+
     @Data
     @Builder
     @NoArgsConstructor
@@ -0,0 +1,43 @@
+package com.ereservations.models;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Filters accepted by {@code GET /booking}. Unset fields are not sent; dates use {@code yyyy-MM-dd}.
+ */
+@Value
+@Builder
+public class BookingQuery {
+    public static final BookingQuery ALL = BookingQuery.builder().build();
+
+    String firstName;
+
+    String lastName;
+
+    // Bookings checking in on or after this date
+    String checkIn;
+
+    // Bookings checking out on or before this date
+    String checkOut;
+
+    public Map<String, String> toQueryParams() {
+        Map<String, String> params = new LinkedHashMap<>();
+        if (firstName != null) {
+            params.put("firstname", firstName);
+        }
+        if (lastName != null) {
+            params.put("lastname", lastName);
+        }
+        if (checkIn != null) {
+            params.put("checkin", checkIn);
+        }
+        if (checkOut != null) {
+            params.put("checkout", checkOut);
+        }
+        return params;
+    }
+}
@@ -0,0 +1,19 @@
+package com.ereservations.models;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingResponse {
+    @JsonProperty("bookingid")
+    private Integer bookingId;
+
+    @JsonProperty("booking")
+    private Booking booking;
+}
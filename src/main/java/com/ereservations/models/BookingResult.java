@@ -0,0 +1,53 @@
+package com.ereservations.models;
+
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+import java.util.Map;
+
+/**
+ * Immutable result of one booking call. {@link Booking} itself is mutable, so it is copied on the way
+ * in and on every {@link #getBooking()}; one result can then be shared by any number of threads, as
+ * the response cache does.
+ */
+@Value
+@Builder
+public class BookingResult {
+    int statusCode;
+
+    String body;
+
+    @Singular
+    Map<String, String> headers;
+
+    long responseTimeMillis;
+
+    Integer bookingId;
+
+    Booking booking;
+
+    public Booking getBooking() {
+        return booking == null ? null : booking.copy();
+    }
+
+    public boolean isSuccessful() {
+        return statusCode >= 200 && statusCode < 300;
+    }
+
+    public String getHeader(String name) {
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name)) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    public static class BookingResultBuilder {
+        public BookingResultBuilder booking(Booking booking) {
+            this.booking = booking == null ? null : booking.copy();
+            return this;
+        }
+    }
+}
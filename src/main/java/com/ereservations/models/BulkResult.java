@@ -0,0 +1,54 @@
+package com.ereservations.models;
+
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+@Builder
+public class BulkResult {
+    @Singular
+    List<Item> items;
+
+    long elapsedMillis;
+
+    public long getSuccessCount() {
+        return items.stream().filter(Item::isSuccessful).count();
+    }
+
+    public long getFailureCount() {
+        return items.size() - getSuccessCount();
+    }
+
+    public double getThroughputPerSecond() {
+        return elapsedMillis == 0 ? 0 : items.size() * 1000.0 / elapsedMillis;
+    }
+
+    public double getAverageLatencyMillis() {
+        return items.stream().mapToLong(Item::getLatencyMillis).average().orElse(0);
+    }
+
+    public long getMaxLatencyMillis() {
+        return items.stream().mapToLong(Item::getLatencyMillis).max().orElse(0);
+    }
+
+    @Value
+    @Builder
+    public static class Item {
+        int index;
+
+        Integer bookingId;
+
+        int statusCode;
+
+        long latencyMillis;
+
+        String error;
+
+        public boolean isSuccessful() {
+            return error == null;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.ereservations.models;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class CacheStats {
+    // Served from the cache without a request
+    long hits;
+
+    // Answered 304 Not Modified, so the cached body was reused
+    long revalidations;
+
+    // Fetched and parsed in full
+    long misses;
+
+    long evictions;
+
+    long invalidations;
+
+    int size;
+
+    public double getHitRatio() {
+        long lookups = hits + revalidations + misses;
+        return lookups == 0 ? 0 : (double) (hits + revalidations) / lookups;
+    }
+}
@@ -0,0 +1,26 @@
+package com.ereservations.models;
+
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+import java.util.Map;
+
+@Value
+@Builder
+public class ResilienceStats {
+    long attempts;
+
+    long retries;
+
+    long retriesDeniedByBudget;
+
+    long breakerRejections;
+
+    // Keyed by "<endpoint> <FROM>-><TO>", e.g. "GET /booking/{id} CLOSED->OPEN"
+    @Singular
+    Map<String, Long> breakerTransitions;
+
+    @Singular
+    Map<String, String> breakerStates;
+}
@@ -0,0 +1,350 @@
+package com.ereservations.schema;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * A JSON schema compiled into a tree of validators that checks a document in one pass over the
+ * Jackson token stream, without building a tree. Every violation is collected rather than stopping
+ * at the first one. Supports the subset of JSON Schema used by our response schemas: {@code type}
+ * (single or list), {@code properties}, {@code required}, {@code additionalProperties: false},
+ * {@code items}, {@code minItems}, {@code minLength}, {@code pattern}, {@code format: date},
+ * {@code minimum}, {@code enum} and {@code $ref} to another named schema.
+ */
+public abstract class CompiledSchema {
+    private static final JsonFactory jsonFactory = new JsonFactory();
+
+    CompiledSchema() {
+    }
+
+    /**
+     * Validates a complete document and returns all violations, empty when the body is valid.
+     */
+    public List<String> validate(String body) {
+        ValidationContext context = new ValidationContext();
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() == null) {
+                context.report("empty document");
+            } else {
+                validate(parser, context);
+                if (parser.nextToken() != null) {
+                    context.report("unexpected content after the root value");
+                }
+            }
+        } catch (JsonParseException e) {
+            context.report("malformed JSON: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            context.report("unreadable JSON: " + e.getMessage());
+        }
+        return context.violations;
+    }
+
+    /**
+     * Checks the value whose first token the parser is positioned on and leaves the parser on the
+     * value's last token.
+     */
+    abstract void validate(JsonParser parser, ValidationContext context) throws IOException;
+
+    public static CompiledSchema compile(JsonNode schema, Function<String, CompiledSchema> references) {
+        if (schema.has("$ref")) {
+            return new RefSchema(schema.get("$ref").asText(), references);
+        }
+        Set<JsonType> types = JsonType.parse(schema.path("type"));
+        if (types.contains(JsonType.OBJECT) || (types.isEmpty() && schema.has("properties"))) {
+            return new ObjectSchema(schema, references);
+        }
+        if (types.contains(JsonType.ARRAY) || (types.isEmpty() && schema.has("items"))) {
+            return new ArraySchema(schema, references);
+        }
+        if (types.isEmpty() && !schema.has("enum")) {
+            return AnySchema.INSTANCE;
+        }
+        return new ScalarSchema(schema, types);
+    }
+
+    enum JsonType {
+        OBJECT, ARRAY, STRING, INTEGER, NUMBER, BOOLEAN, NULL;
+
+        static Set<JsonType> parse(JsonNode type) {
+            Set<JsonType> types = EnumSet.noneOf(JsonType.class);
+            if (type.isTextual()) {
+                types.add(valueOf(type.asText().toUpperCase()));
+            } else if (type.isArray()) {
+                type.forEach(t -> types.add(valueOf(t.asText().toUpperCase())));
+            }
+            return types;
+        }
+
+        static String describe(JsonToken token) {
+            switch (token) {
+                case START_OBJECT: return "object";
+                case START_ARRAY: return "array";
+                case VALUE_STRING: return "string";
+                case VALUE_NUMBER_INT: return "integer";
+                case VALUE_NUMBER_FLOAT: return "number";
+                case VALUE_TRUE:
+                case VALUE_FALSE: return "boolean";
+                case VALUE_NULL: return "null";
+                default: return token.name();
+            }
+        }
+
+        boolean matches(JsonToken token) {
+            switch (this) {
+                case OBJECT: return token == JsonToken.START_OBJECT;
+                case ARRAY: return token == JsonToken.START_ARRAY;
+                case STRING: return token == JsonToken.VALUE_STRING;
+                case INTEGER: return token == JsonToken.VALUE_NUMBER_INT;
+                case NUMBER: return token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT;
+                case BOOLEAN: return token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE;
+                case NULL: return token == JsonToken.VALUE_NULL;
+                default: return false;
+            }
+        }
+    }
+
+    /**
+     * Holds the violations and the current location. Path segments are kept on a stack and only
+     * rendered into a string when a violation is reported.
+     */
+    static final class ValidationContext {
+        private final List<String> violations = new ArrayList<>();
+        private Object[] segments = new Object[16];
+        private int depth;
+
+        void push(Object segment) {
+            if (depth == segments.length) {
+                Object[] grown = new Object[depth * 2];
+                System.arraycopy(segments, 0, grown, 0, depth);
+                segments = grown;
+            }
+            segments[depth++] = segment;
+        }
+
+        void pop() {
+            segments[--depth] = null;
+        }
+
+        void report(String message) {
+            StringBuilder path = new StringBuilder("$");
+            for (int i = 0; i < depth; i++) {
+                if (segments[i] instanceof Integer) {
+                    path.append('[').append(segments[i]).append(']');
+                } else {
+                    path.append('.').append(segments[i]);
+                }
+            }
+            violations.add(path.append(": ").append(message).toString());
+        }
+    }
+
+    private static void typeMismatch(JsonParser parser, ValidationContext context, String expected) throws IOException {
+        context.report("expected " + expected + " but was " + JsonType.describe(parser.currentToken()));
+        parser.skipChildren();
+    }
+
+    static final class ObjectSchema extends CompiledSchema {
+        private final Map<String, CompiledSchema> properties = new HashMap<>();
+        private final Map<String, Integer> requiredIndex = new HashMap<>();
+        private final String[] required;
+        private final boolean additionalProperties;
+
+        ObjectSchema(JsonNode schema, Function<String, CompiledSchema> references) {
+            schema.path("properties").fields().forEachRemaining(
+                    property -> properties.put(property.getKey(), compile(property.getValue(), references)));
+            List<String> names = new ArrayList<>();
+            schema.path("required").forEach(name -> names.add(name.asText()));
+            this.required = names.toArray(new String[0]);
+            for (int i = 0; i < required.length; i++) {
+                requiredIndex.put(required[i], i);
+            }
+            this.additionalProperties = schema.path("additionalProperties").asBoolean(true);
+        }
+
+        @Override
+        void validate(JsonParser parser, ValidationContext context) throws IOException {
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                typeMismatch(parser, context, "object");
+                return;
+            }
+            boolean[] seen = required.length == 0 ? null : new boolean[required.length];
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                parser.nextToken();
+                Integer index = requiredIndex.get(name);
+                if (index != null) {
+                    seen[index] = true;
+                }
+                CompiledSchema property = properties.get(name);
+                if (property != null) {
+                    context.push(name);
+                    property.validate(parser, context);
+                    context.pop();
+                } else {
+                    if (!additionalProperties) {
+                        context.report("unexpected property '" + name + "'");
+                    }
+                    parser.skipChildren();
+                }
+            }
+            for (int i = 0; i < required.length; i++) {
+                if (!seen[i]) {
+                    context.report("missing required property '" + required[i] + "'");
+                }
+            }
+        }
+    }
+
+    static final class ArraySchema extends CompiledSchema {
+        private final CompiledSchema items;
+        private final int minItems;
+
+        ArraySchema(JsonNode schema, Function<String, CompiledSchema> references) {
+            this.items = schema.has("items") ? compile(schema.get("items"), references) : AnySchema.INSTANCE;
+            this.minItems = schema.path("minItems").asInt(0);
+        }
+
+        @Override
+        void validate(JsonParser parser, ValidationContext context) throws IOException {
+            if (parser.currentToken() != JsonToken.START_ARRAY) {
+                typeMismatch(parser, context, "array");
+                return;
+            }
+            int index = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                context.push(index++);
+                items.validate(parser, context);
+                context.pop();
+            }
+            if (index < minItems) {
+                context.report("expected at least " + minItems + " items but found " + index);
+            }
+        }
+    }
+
+    static final class ScalarSchema extends CompiledSchema {
+        private final Set<JsonType> types;
+        private final String expected;
+        private final int minLength;
+        private final Pattern pattern;
+        private final boolean dateFormat;
+        private final Double minimum;
+        private final String minimumText;
+        private final Set<String> allowedValues;
+
+        ScalarSchema(JsonNode schema, Set<JsonType> types) {
+            this.types = types;
+            this.expected = types.stream().map(type -> type.name().toLowerCase()).collect(Collectors.joining(" or "));
+            this.minLength = schema.path("minLength").asInt(0);
+            this.pattern = schema.has("pattern") ? Pattern.compile(schema.get("pattern").asText()) : null;
+            this.dateFormat = "date".equals(schema.path("format").asText(null));
+            this.minimum = schema.has("minimum") ? schema.get("minimum").asDouble() : null;
+            this.minimumText = schema.path("minimum").asText();
+            Set<String> values = new HashSet<>();
+            schema.path("enum").forEach(value -> values.add(value.asText()));
+            this.allowedValues = values.isEmpty() ? null : Collections.unmodifiableSet(values);
+        }
+
+        @Override
+        void validate(JsonParser parser, ValidationContext context) throws IOException {
+            JsonToken token = parser.currentToken();
+            if (!types.isEmpty() && !matchesType(token)) {
+                typeMismatch(parser, context, expected);
+                return;
+            }
+            if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                return;
+            }
+            if (token == JsonToken.VALUE_STRING) {
+                String text = parser.getText();
+                if (text.length() < minLength) {
+                    context.report("expected at least " + minLength + " characters");
+                }
+                if (pattern != null && !pattern.matcher(text).matches()) {
+                    context.report("'" + text + "' does not match " + pattern.pattern());
+                }
+                if (dateFormat && !isIsoDate(text)) {
+                    context.report("'" + text + "' is not a yyyy-MM-dd date");
+                }
+            } else if (minimum != null && token.isNumeric() && parser.getDoubleValue() < minimum) {
+                context.report(parser.getText() + " is below the minimum of " + minimumText);
+            }
+            if (allowedValues != null && !allowedValues.contains(parser.getText())) {
+                context.report("'" + parser.getText() + "' is not one of " + allowedValues);
+            }
+        }
+
+        private boolean matchesType(JsonToken token) {
+            for (JsonType type : types) {
+                if (type.matches(token)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean isIsoDate(String text) {
+            if (text.length() != 10 || text.charAt(4) != '-' || text.charAt(7) != '-') {
+                return false;
+            }
+            for (int i = 0; i < 10; i++) {
+                if (i != 4 && i != 7 && !Character.isDigit(text.charAt(i))) {
+                    return false;
+                }
+            }
+            int month = Integer.parseInt(text.substring(5, 7));
+            int day = Integer.parseInt(text.substring(8, 10));
+            return month >= 1 && month <= 12 && day >= 1 && day <= 31;
+        }
+    }
+
+    static final class RefSchema extends CompiledSchema {
+        private final String name;
+        private final Function<String, CompiledSchema> references;
+        private volatile CompiledSchema target;
+
+        RefSchema(String name, Function<String, CompiledSchema> references) {
+            this.name = name;
+            this.references = references;
+        }
+
+        @Override
+        void validate(JsonParser parser, ValidationContext context) throws IOException {
+            CompiledSchema resolved = target;
+            if (resolved == null) {
+                resolved = references.apply(name);
+                if (resolved == null) {
+                    throw new IllegalStateException("Unknown schema reference: " + name);
+                }
+                target = resolved;
+            }
+            resolved.validate(parser, context);
+        }
+    }
+
+    static final class AnySchema extends CompiledSchema {
+        static final AnySchema INSTANCE = new AnySchema();
+
+        @Override
+        void validate(JsonParser parser, ValidationContext context) throws IOException {
+            parser.skipChildren();
+        }
+    }
+}
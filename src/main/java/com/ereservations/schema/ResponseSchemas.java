@@ -0,0 +1,66 @@
+package com.ereservations.schema;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Response schemas for each endpoint, loaded from {@code schemas/<name>.schema.json} on the
+ * classpath and compiled once when this class is initialised. Compiled schemas are immutable and
+ * can validate bodies from any number of threads.
+ */
+public final class ResponseSchemas {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final Map<String, CompiledSchema> schemas = new ConcurrentHashMap<>();
+
+    public static final String BOOKING = "booking";
+    public static final String BOOKING_RESPONSE = "booking-response";
+    public static final String BOOKING_IDS = "booking-ids";
+    public static final String AUTH_TOKEN = "auth-token";
+    public static final String HEALTH = "health";
+
+    static {
+        for (String name : List.of(BOOKING, BOOKING_RESPONSE, BOOKING_IDS, AUTH_TOKEN, HEALTH)) {
+            schemas.put(name, load(name));
+        }
+    }
+
+    private ResponseSchemas() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static CompiledSchema get(String name) {
+        CompiledSchema schema = schemas.get(name);
+        if (schema == null) {
+            throw new IllegalArgumentException("Unknown response schema: " + name);
+        }
+        return schema;
+    }
+
+    /**
+     * Validates {@code body} against the named schema and throws with every violation if it fails.
+     */
+    public static void assertValid(String name, String body) {
+        List<String> violations = get(name).validate(body);
+        if (!violations.isEmpty()) {
+            throw new SchemaValidationException(name, violations);
+        }
+    }
+
+    private static CompiledSchema load(String name) {
+        String resource = "schemas/" + name + ".schema.json";
+        try (InputStream input = ResponseSchemas.class.getClassLoader().getResourceAsStream(resource)) {
+            if (input == null) {
+                throw new IllegalStateException("Schema not found on classpath: " + resource);
+            }
+            return CompiledSchema.compile(objectMapper.readTree(input), schemas::get);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load schema " + resource, e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.ereservations.schema;
+
+import java.util.List;
+
+/**
+ * Thrown when a response body does not match its schema; carries every violation found.
+ */
+public class SchemaValidationException extends RuntimeException {
+    private final List<String> violations;
+
+    public SchemaValidationException(String schemaName, List<String> violations) {
+        super("Response does not match schema '" + schemaName + "': " + String.join("; ", violations));
+        this.violations = List.copyOf(violations);
+    }
+
+    public List<String> getViolations() {
+        return violations;
+    }
+}
@@ -0,0 +1,399 @@
+package com.ereservations.stub;
+
+import com.ereservations.models.Booking;
+import com.ereservations.models.BookingResponse;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+/**
+ * In-process implementation of the Restful-Booker contract ({@code /auth}, {@code /booking} CRUD,
+ * {@code /ping} and {@code /health}) backed by a concurrent in-memory store. It binds to the
+ * loopback interface, so tests and simulations can run offline and at rates the shared host would
+ * throttle.
+ */
+public class RestfulBookerStubServer {
+    private static final Logger log = LoggerFactory.getLogger(RestfulBookerStubServer.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final ObjectReader bookingReader = objectMapper.readerFor(Booking.class);
+    private static final ObjectWriter bookingWriter = objectMapper.writerFor(Booking.class);
+    private static final ObjectWriter bookingResponseWriter = objectMapper.writerFor(BookingResponse.class);
+    private static final String JSON = "application/json; charset=utf-8";
+    private static final String TEXT = "text/plain; charset=utf-8";
+    private static final String TOKEN_MAC_ALGORITHM = "HmacSHA256";
+    private static final int NONCE_LENGTH = 7;
+    private static final int TOKEN_LENGTH = NONCE_LENGTH + 8;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final String username;
+    private final String password;
+    private final Map<Integer, Booking> bookings = new ConcurrentHashMap<>();
+    // Tokens are a random nonce plus its truncated HMAC under this stub's key, so any token it issued
+    // verifies without being remembered and long runs do not accumulate them
+    private final SecretKeySpec tokenKey;
+    private final ThreadLocal<Mac> tokenMac = ThreadLocal.withInitial(this::newTokenMac);
+    private final AtomicInteger nextBookingId = new AtomicInteger(1);
+
+    private RestfulBookerStubServer(int port, int threads, String username, String password) throws IOException {
+        this.username = username;
+        this.password = password;
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.tokenKey = new SecretKeySpec(key, TOKEN_MAC_ALGORITHM);
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "stub-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/auth", exchange -> handle(exchange, this::auth));
+        server.createContext("/booking", exchange -> handle(exchange, this::booking));
+        server.createContext("/ping", exchange -> handle(exchange, ex -> send(ex, 201, TEXT, "Created")));
+        server.createContext("/health", exchange -> handle(exchange, ex -> send(ex, 200, JSON, "{\"status\":\"OK\"}")));
+    }
+
+    /**
+     * Starts a stub on the given port, or on a random free port when {@code port} is 0, accepting
+     * Restful-Booker's public demo credentials.
+     */
+    public static RestfulBookerStubServer start(int port) {
+        return start(port, "admin", "password123");
+    }
+
+    /**
+     * Starts a stub that only issues tokens for the given credentials.
+     */
+    public static RestfulBookerStubServer start(int port, String username, String password) {
+        return start(port, Math.max(8, Runtime.getRuntime().availableProcessors() * 4), username, password);
+    }
+
+    public static RestfulBookerStubServer start(int port, int threads, String username, String password) {
+        try {
+            RestfulBookerStubServer stub = new RestfulBookerStubServer(port, threads, username, password);
+            stub.server.start();
+            log.info("Started Restful-Booker stub at {}", stub.getBaseUrl());
+            return stub;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to start stub server on port " + port, e);
+        }
+    }
+
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    public int getBookingCount() {
+        return bookings.size();
+    }
+
+    /**
+     * Drops every stored booking except {@code keep}, e.g. between benchmark iterations that keep
+     * creating bookings, so the store does not grow without bound.
+     */
+    public void retainBookings(int... keep) {
+        Set<Integer> kept = new HashSet<>();
+        for (int id : keep) {
+            kept.add(id);
+        }
+        bookings.keySet().removeIf(id -> !kept.contains(id));
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+        log.info("Stopped Restful-Booker stub");
+    }
+
+    private void auth(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            send(exchange, 404, TEXT, "Not Found");
+            return;
+        }
+        JsonNode credentials = objectMapper.readTree(exchange.getRequestBody());
+        if (username.equals(credentials.path("username").asText())
+                && password.equals(credentials.path("password").asText())) {
+            String nonce = String.format("%07x", ThreadLocalRandom.current().nextInt(1 << 28));
+            String token = nonce + tokenSignature(nonce);
+            send(exchange, 200, JSON, "{\"token\":\"" + token + "\"}");
+        } else {
+            send(exchange, 200, JSON, "{\"reason\":\"Bad credentials\"}");
+        }
+    }
+
+    private void booking(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String method = exchange.getRequestMethod();
+        if (path.equals("/booking") || path.equals("/booking/")) {
+            if ("GET".equals(method)) {
+                listBookings(exchange);
+            } else if ("POST".equals(method)) {
+                createBooking(exchange);
+            } else {
+                send(exchange, 404, TEXT, "Not Found");
+            }
+            return;
+        }
+
+        int bookingId;
+        try {
+            bookingId = Integer.parseInt(path.substring("/booking/".length()));
+        } catch (NumberFormatException e) {
+            send(exchange, 404, TEXT, "Not Found");
+            return;
+        }
+        switch (method) {
+            case "GET":
+                Booking booking = bookings.get(bookingId);
+                if (booking == null) {
+                    send(exchange, 404, TEXT, "Not Found");
+                } else {
+                    sendCacheable(exchange, bookingWriter.writeValueAsBytes(booking));
+                }
+                break;
+            case "PUT":
+            case "PATCH":
+                updateBooking(exchange, bookingId, "PATCH".equals(method));
+                break;
+            case "DELETE":
+                if (!isAuthorized(exchange)) {
+                    send(exchange, 403, TEXT, "Forbidden");
+                } else if (bookings.remove(bookingId) == null) {
+                    send(exchange, 405, TEXT, "Method Not Allowed");
+                } else {
+                    send(exchange, 201, TEXT, "Created");
+                }
+                break;
+            default:
+                send(exchange, 404, TEXT, "Not Found");
+        }
+    }
+
+    private void listBookings(HttpExchange exchange) throws IOException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        String firstName = query.get("firstname");
+        String lastName = query.get("lastname");
+        String checkIn = query.get("checkin");
+        String checkOut = query.get("checkout");
+
+        ArrayNode ids = objectMapper.createArrayNode();
+        bookings.forEach((id, booking) -> {
+            if ((firstName == null || firstName.equals(booking.getFirstName()))
+                    && (lastName == null || lastName.equals(booking.getLastName()))
+                    && (checkIn == null || booking.getBookingDates().getCheckIn().compareTo(checkIn) >= 0)
+                    && (checkOut == null || booking.getBookingDates().getCheckOut().compareTo(checkOut) <= 0)) {
+                ids.addObject().put("bookingid", id);
+            }
+        });
+        sendCacheable(exchange, objectMapper.writeValueAsBytes(ids));
+    }
+
+    private void createBooking(HttpExchange exchange) throws IOException {
+        Booking booking = readBooking(exchange);
+        if (booking == null) {
+            send(exchange, 400, TEXT, "Bad Request");
+        } else if (!isComplete(booking)) {
+            send(exchange, 500, TEXT, "Internal Server Error");
+        } else {
+            int bookingId = nextBookingId.getAndIncrement();
+            bookings.put(bookingId, booking);
+            send(exchange, 200, JSON, bookingResponseWriter.writeValueAsBytes(new BookingResponse(bookingId, booking)));
+        }
+    }
+
+    private void updateBooking(HttpExchange exchange, int bookingId, boolean partial) throws IOException {
+        if (!isAuthorized(exchange)) {
+            send(exchange, 403, TEXT, "Forbidden");
+            return;
+        }
+        Booking existing = bookings.get(bookingId);
+        if (existing == null) {
+            send(exchange, 405, TEXT, "Method Not Allowed");
+            return;
+        }
+        Booking update = readBooking(exchange);
+        if (update == null) {
+            send(exchange, 400, TEXT, "Bad Request");
+            return;
+        }
+        if (partial) {
+            update = merge(existing, update);
+        } else if (!isComplete(update)) {
+            send(exchange, 400, TEXT, "Bad Request");
+            return;
+        }
+        bookings.put(bookingId, update);
+        send(exchange, 200, JSON, bookingWriter.writeValueAsBytes(update));
+    }
+
+    private boolean isIssuedToken(String token) {
+        return token.length() == TOKEN_LENGTH && MessageDigest.isEqual(
+                tokenSignature(token.substring(0, NONCE_LENGTH)).getBytes(StandardCharsets.US_ASCII),
+                token.substring(NONCE_LENGTH).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    // First four bytes of the HMAC as hex; 7 + 8 characters matches the length of Restful-Booker's tokens
+    private String tokenSignature(String nonce) {
+        byte[] mac = tokenMac.get().doFinal(nonce.getBytes(StandardCharsets.US_ASCII));
+        return String.format("%02x%02x%02x%02x", mac[0], mac[1], mac[2], mac[3]);
+    }
+
+    private Mac newTokenMac() {
+        try {
+            Mac mac = Mac.getInstance(TOKEN_MAC_ALGORITHM);
+            mac.init(tokenKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot create " + TOKEN_MAC_ALGORITHM + " for stub tokens", e);
+        }
+    }
+
+    private boolean isAuthorized(HttpExchange exchange) {
+        String cookie = exchange.getRequestHeaders().getFirst("Cookie");
+        if (cookie != null) {
+            for (String part : cookie.split(";")) {
+                String trimmed = part.trim();
+                if (trimmed.startsWith("token=") && isIssuedToken(trimmed.substring("token=".length()))) {
+                    return true;
+                }
+            }
+        }
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (authorization != null && authorization.startsWith("Basic ")) {
+            String credentials = new String(Base64.getDecoder().decode(authorization.substring(6)), StandardCharsets.UTF_8);
+            return credentials.equals(username + ":" + password);
+        }
+        return false;
+    }
+
+    private static Booking readBooking(HttpExchange exchange) {
+        try (InputStream body = exchange.getRequestBody()) {
+            return bookingReader.readValue(body);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static boolean isComplete(Booking booking) {
+        return booking.getFirstName() != null
+                && booking.getLastName() != null
+                && booking.getTotalPrice() != null
+                && booking.getDepositPaid() != null
+                && booking.getBookingDates() != null
+                && booking.getBookingDates().getCheckIn() != null
+                && booking.getBookingDates().getCheckOut() != null;
+    }
+
+    private static Booking merge(Booking existing, Booking update) {
+        return Booking.builder()
+                .firstName(update.getFirstName() != null ? update.getFirstName() : existing.getFirstName())
+                .lastName(update.getLastName() != null ? update.getLastName() : existing.getLastName())
+                .totalPrice(update.getTotalPrice() != null ? update.getTotalPrice() : existing.getTotalPrice())
+                .depositPaid(update.getDepositPaid() != null ? update.getDepositPaid() : existing.getDepositPaid())
+                .bookingDates(update.getBookingDates() != null ? update.getBookingDates() : existing.getBookingDates())
+                .additionalNeeds(update.getAdditionalNeeds() != null ? update.getAdditionalNeeds() : existing.getAdditionalNeeds())
+                .build();
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                query.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return query;
+    }
+
+    private static void handle(HttpExchange exchange, Handler handler) {
+        try {
+            handler.handle(exchange);
+        } catch (Exception e) {
+            log.error("Stub server failed to handle {} {}", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+            try {
+                send(exchange, 500, TEXT, "Internal Server Error");
+            } catch (IOException ignored) {
+                // Response already started; nothing more can be sent
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // Weak ETag over the body, answering If-None-Match with 304 the way the real (Express) server does
+    private static void sendCacheable(HttpExchange exchange, byte[] body) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        String etag = "W/\"" + Integer.toHexString(body.length) + "-" + Long.toHexString(crc.getValue()) + "\"";
+        exchange.getResponseHeaders().set("ETag", etag);
+        if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+        send(exchange, 200, JSON, body);
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        send(exchange, status, contentType, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.getResponseHeaders().set("X-Content-Type-Options", "nosniff");
+        exchange.getResponseHeaders().set("X-Frame-Options", "SAMEORIGIN");
+        exchange.getResponseHeaders().set("X-XSS-Protection", "1; mode=block");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    public static void main(String[] args) {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 3001;
+        RestfulBookerStubServer stub = start(port);
+        Runtime.getRuntime().addShutdownHook(new Thread(stub::stop, "stub-server-shutdown"));
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+}
@@ -0,0 +1,234 @@
+package com.ereservations.soak;
+
+import com.ereservations.api.AsyncBookingApiClient;
+import com.ereservations.api.BaseApiClient;
+import com.ereservations.api.BookingApiClient;
+import com.ereservations.api.Deadline;
+import com.ereservations.api.SystemApiClient;
+import com.ereservations.data.BookingDataGenerator;
+import com.ereservations.metrics.BaselineComparison;
+import com.ereservations.metrics.BaselineStore;
+import com.ereservations.metrics.LatencyRegistry;
+import com.ereservations.metrics.LatencySummary;
+import com.ereservations.metrics.PerformanceBaseline;
+import com.ereservations.models.BookingResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Soak and load driver that runs every virtual user on its own virtual thread through the same
+ * {@link BookingApiClient} and {@link SystemApiClient} calls the functional tests use, so payloads,
+ * URLs, retries and timeouts are shared with the suites instead of duplicated in Gatling DSL.
+ * Latencies land in {@link LatencyRegistry#global()} and are summarised with per-endpoint
+ * throughput at the end of the run. Requires JDK 21; run with {@code mvn -Psoak test-compile exec:exec}.
+ *
+ * <p>Users spend most of their time in think time, which costs a virtual thread almost nothing, so
+ * tens of thousands of users fit in one JVM. In-flight requests are still bounded by
+ * {@code http.pool.max.total}, which should be raised for large runs.
+ */
+public final class SoakRunner {
+    private static final Logger log = LoggerFactory.getLogger(SoakRunner.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final int users;
+    private final Duration duration;
+    private final int iterations;
+    private final Duration ramp;
+    private final long thinkMinMillis;
+    private final long thinkMaxMillis;
+    private final String[] flows;
+    private final long seed;
+
+    private final BookingApiClient bookingClient = new BookingApiClient();
+    private final SystemApiClient systemClient = new SystemApiClient();
+
+    private final AtomicInteger activeUsers = new AtomicInteger();
+    private final LongAdder completedFlows = new LongAdder();
+    private final LongAdder failedFlows = new LongAdder();
+    private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+
+    private SoakRunner() {
+        this.users = Integer.getInteger("soak.users", 100);
+        this.duration = Duration.ofSeconds(Long.getLong("soak.duration.seconds", 60));
+        this.iterations = Integer.getInteger("soak.iterations", 0);
+        this.ramp = Duration.ofSeconds(Long.getLong("soak.ramp.seconds", 10));
+        this.thinkMinMillis = Long.getLong("soak.think.min.ms", 200);
+        this.thinkMaxMillis = Math.max(thinkMinMillis, Long.getLong("soak.think.max.ms", 800));
+        this.flows = System.getProperty("soak.flows", "crud,crud,crud,system").split(",");
+        this.seed = Long.getLong("booking.data.seed", 42L);
+    }
+
+    public static void main(String[] args) {
+        SoakRunner runner = new SoakRunner();
+        long start = System.nanoTime();
+        double errorRatio = runner.run();
+        // Soak runs keep their own baseline, separate from the functional suites
+        PerformanceBaseline current = PerformanceBaseline.fromRun(
+                LatencyRegistry.global().snapshot(), Map.of(), (System.nanoTime() - start) / 1e9, runner.workload());
+
+        // Bookings from failed flows are deleted after the snapshot, so teardown is not measured
+        if (BaseApiClient.getCreatedBookings() != null && BaseApiClient.getCreatedBookings().size() > 0) {
+            new AsyncBookingApiClient().deleteTrackedBookings();
+        }
+
+        double maxErrorRatio = Double.parseDouble(System.getProperty("soak.max.error.ratio", "0.01"));
+        if (errorRatio > maxErrorRatio) {
+            log.error("Flow error ratio {} exceeds soak.max.error.ratio {}", String.format("%.4f", errorRatio), maxErrorRatio);
+            System.exit(1);
+        }
+
+        BaselineStore store = BaselineStore.forSuite("soak");
+        if (store.check(current).map(BaselineComparison::hasRegressions).orElse(false)) {
+            log.error("Soak performance regressed against baseline {}", store.getFile());
+            System.exit(1);
+        }
+    }
+
+    private Map<String, String> workload() {
+        Map<String, String> workload = new TreeMap<>(BaseApiClient.getWorkloadSettings());
+        workload.put("soak.users", String.valueOf(users));
+        workload.put("soak.length", iterations > 0 ? iterations + " iterations" : duration.toString());
+        workload.put("soak.ramp", ramp.toString());
+        workload.put("soak.think.ms", thinkMinMillis + "-" + thinkMaxMillis);
+        workload.put("soak.flows", String.join(",", flows));
+        return workload;
+    }
+
+    /**
+     * Runs all users to completion and returns the fraction of flows that failed.
+     */
+    double run() {
+        log.info("Starting {} virtual users for {} (ramp: {}, flows: {})", users,
+                iterations > 0 ? iterations + " iterations each" : duration, ramp, String.join(",", flows));
+        long start = System.nanoTime();
+        long stopAt = iterations > 0 ? Long.MAX_VALUE : start + duration.toNanos();
+
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().daemon().name("soak-progress").factory());
+        progress.scheduleAtFixedRate(this::logProgress, 10, 10, TimeUnit.SECONDS);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int user = 0; user < users; user++) {
+                int userIndex = user;
+                executor.submit(() -> runUser(userIndex, start, stopAt));
+            }
+        } finally {
+            progress.shutdownNow();
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        logSummary(elapsedNanos);
+        long total = completedFlows.sum() + failedFlows.sum();
+        return total == 0 ? 0 : (double) failedFlows.sum() / total;
+    }
+
+    private void runUser(int userIndex, long start, long stopAt) {
+        // Spread user start times evenly across the ramp
+        sleepUntil(start + ramp.toNanos() * userIndex / Math.max(1, users));
+        activeUsers.incrementAndGet();
+        BookingDataGenerator generator = new BookingDataGenerator(seed + userIndex);
+        try {
+            for (int i = 0; (iterations <= 0 || i < iterations) && System.nanoTime() < stopAt; i++) {
+                String flow = flows[(userIndex + i) % flows.length].trim();
+                // One deadline per flow, as in the functional tests
+                try (Deadline.Scope ignored = Deadline.enter(Deadline.after(BaseApiClient.getDefaultDeadlineMillis()))) {
+                    runFlow(flow, generator);
+                    completedFlows.increment();
+                } catch (RuntimeException e) {
+                    failedFlows.increment();
+                    failures.computeIfAbsent(flow + ": " + e.getClass().getSimpleName(), key -> new LongAdder()).increment();
+                }
+                think();
+            }
+        } finally {
+            activeUsers.decrementAndGet();
+        }
+    }
+
+    private void runFlow(String flow, BookingDataGenerator generator) {
+        switch (flow) {
+            case "crud" -> runCrudFlow(generator);
+            case "system" -> {
+                systemClient.ping();
+                systemClient.health();
+            }
+            default -> throw new IllegalArgumentException("Unknown soak flow: " + flow);
+        }
+    }
+
+    private void runCrudFlow(BookingDataGenerator generator) {
+        JsonNode booking = objectMapper.valueToTree(generator.next());
+        BookingResult created = bookingClient.createBooking(booking);
+        int bookingId = created.getBookingId();
+        try {
+            bookingClient.getBooking(bookingId);
+            bookingClient.updateBooking(bookingId, objectMapper.valueToTree(generator.next()));
+        } catch (RuntimeException e) {
+            // Still clean up, but keep the original failure as the one counted
+            try {
+                bookingClient.deleteBooking(bookingId);
+            } catch (RuntimeException deleteError) {
+                log.warn("Could not delete booking {} after a failed flow: {}", bookingId, deleteError.toString());
+                e.addSuppressed(deleteError);
+            }
+            throw e;
+        }
+        bookingClient.deleteBooking(bookingId);
+    }
+
+    private void think() {
+        long millis = thinkMaxMillis > thinkMinMillis
+                ? ThreadLocalRandom.current().nextLong(thinkMinMillis, thinkMaxMillis + 1)
+                : thinkMinMillis;
+        sleepUntil(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    private static void sleepUntil(long nanoTime) {
+        long remaining = nanoTime - System.nanoTime();
+        if (remaining <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(Duration.ofNanos(remaining));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void logProgress() {
+        log.info("Active users: {}, completed flows: {}, failed flows: {}",
+                activeUsers.get(), completedFlows.sum(), failedFlows.sum());
+    }
+
+    private void logSummary(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        StringBuilder summary = new StringBuilder(String.format("%nSoak run finished in %.1fs: %d flows completed, %d failed%n",
+                seconds, completedFlows.sum(), failedFlows.sum()));
+        summary.append(String.format("%-28s %10s %10s %10s %10s %10s %10s%n",
+                "endpoint", "count", "req/s", "p50_ms", "p90_ms", "p99_ms", "max_ms"));
+        long totalRequests = 0;
+        for (Map.Entry<String, LatencySummary> entry : LatencyRegistry.global().snapshot().entrySet()) {
+            LatencySummary latency = entry.getValue();
+            totalRequests += latency.getCount();
+            summary.append(String.format("%-28s %10d %10.1f %10.3f %10.3f %10.3f %10.3f%n", entry.getKey(),
+                    latency.getCount(), latency.getCount() / seconds, latency.getP50Millis(), latency.getP90Millis(),
+                    latency.getP99Millis(), latency.getMaxMillis()));
+        }
+        summary.append(String.format("%-28s %10d %10.1f%n", "total", totalRequests, totalRequests / seconds));
+        failures.forEach((failure, count) -> summary.append(String.format("  %s x%d%n", failure, count.sum())));
+        log.info(summary.toString());
+    }
+}
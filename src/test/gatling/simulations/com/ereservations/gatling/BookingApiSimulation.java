@@ -1,36 +1,168 @@
 package com.ereservations.gatling;
 
+import com.ereservations.api.AsyncBookingApiClient;
+import com.ereservations.api.BaseApiClient;
+import com.ereservations.data.BookingFeeder;
+import com.ereservations.data.CreatedBookingTracker;
+import com.ereservations.stub.RestfulBookerStubServer;
 import io.gatling.javaapi.core.*;
 import io.gatling.javaapi.http.*;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+
 import static io.gatling.javaapi.core.CoreDsl.*;
 import static io.gatling.javaapi.http.HttpDsl.*;
 
+/**
+ * Correlated booking workload: each virtual user authenticates once, then repeatedly creates a
+ * booking, performs a weighted mix of reads, updates and list calls against that same booking and
+ * finally deletes it. Weights, think times and user counts are read from system properties, e.g.
+ * {@code -Dworkload.read.weight=70 -Dworkload.update.weight=20 -Dworkload.list.weight=10}.
+ * Created bookings come from {@code -Dbooking.data.file} (see {@code BookingDataGenerator}) or, when
+ * unset, from a generator seeded with {@code -Dbooking.data.seed}. The injection profile is picked
+ * with {@code -Dload.profile} (see {@link LoadProfiles}) and pass/fail gates come from the SLO file
+ * (see {@link SloAssertions}). Against a live host every created booking is tracked, and those a
+ * user did not get to delete (failed checks, aborted run) are torn down after the simulation.
+ */
 public class BookingApiSimulation extends Simulation {
 
+    private static final String USERNAME = System.getProperty("auth.username", "admin");
+    private static final String PASSWORD = System.getProperty("auth.password", "password123");
+
+    // -Dstub.enabled=true runs against an embedded stub; -Dbase.url overrides the target host
+    private static final RestfulBookerStubServer stubServer = Boolean.getBoolean("stub.enabled")
+            ? RestfulBookerStubServer.start(0, USERNAME, PASSWORD) : null;
+    private static final String BASE_URL = stubServer != null
+            ? stubServer.getBaseUrl()
+            : System.getProperty("base.url", "https://restful-booker.herokuapp.com");
+
+    // Journaled like the TestNG clients' bookings; nothing to clean up on the embedded stub
+    private static final CreatedBookingTracker createdBookings = stubServer == null
+            ? BaseApiClient.getCreatedBookings() : null;
+
+    private static final int ITERATIONS = Integer.getInteger("workload.iterations", 5);
+    private static final int OPERATIONS_PER_BOOKING = Integer.getInteger("workload.operations.per.booking", 4);
+    private static final int READ_WEIGHT = Integer.getInteger("workload.read.weight", 70);
+    private static final int UPDATE_WEIGHT = Integer.getInteger("workload.update.weight", 20);
+    private static final int LIST_WEIGHT = Integer.getInteger("workload.list.weight", 10);
+    private static final Duration THINK_MIN = Duration.ofMillis(Long.getLong("workload.think.min.ms", 200));
+    private static final Duration THINK_MAX = Duration.ofMillis(Long.getLong("workload.think.max.ms", 800));
+
+    private static final String CREDENTIALS = String.format("{\"username\":\"%s\",\"password\":\"%s\"}",
+            USERNAME, PASSWORD);
+    private static final String UPDATED_BOOKING = "{\"firstname\":\"Jane\",\"lastname\":\"Doe\",\"totalprice\":150,"
+            + "\"depositpaid\":true,\"bookingdates\":{\"checkin\":\"2024-02-01\",\"checkout\":\"2024-02-05\"},"
+            + "\"additionalneeds\":\"Lunch\"}";
+
+    private static final BookingFeeder bookingFeeder = System.getProperty("booking.data.file") != null
+            ? BookingFeeder.fromFile(Paths.get(System.getProperty("booking.data.file")))
+            : BookingFeeder.generated(Long.getLong("booking.data.seed", 42L));
+
     private final HttpProtocolBuilder httpProtocol = http
-            .baseUrl("https://restful-booker.herokuapp.com")
+            .baseUrl(BASE_URL)
             .header("Accept", "application/json")
             .header("Content-Type", "application/json");
 
-    private final ScenarioBuilder scn = scenario("Booking API Load Test")
-            .exec(
-                http("Get All Booking IDs")
-                    .get("/booking")
-                    .check(
-                        status().is(200),
-                        jmesPath("[*]").exists()
+    private final ChainBuilder authenticate = exec(
+            http("Create Token")
+                .post("/auth")
+                .body(StringBody(CREDENTIALS))
+                .check(
+                    status().is(200),
+                    jmesPath("token").saveAs("token")
+                )
+    ).exitHereIfFailed();
+
+    private final ChainBuilder createBooking = exec(session -> session.remove("bookingId")).feed(bookingFeeder).exec(
+            http("Create Booking")
+                .post("/booking")
+                .body(StringBody("#{" + BookingFeeder.BOOKING_JSON + "}"))
+                .check(
+                    status().is(200),
+                    jmesPath("bookingid").saveAs("bookingId")
+                )
+    ).exec(session -> {
+        // bookingId was cleared before the create, so it is only present when this one succeeded
+        if (createdBookings != null && session.contains("bookingId")) {
+            createdBookings.add(session.getInt("bookingId"));
+        }
+        return session;
+    });
+
+    private final ChainBuilder getBooking = exec(
+            http("Get Booking")
+                .get("/booking/#{bookingId}")
+                .check(status().is(200))
+    );
+
+    private final ChainBuilder updateBooking = exec(
+            http("Update Booking")
+                .put("/booking/#{bookingId}")
+                .header("Cookie", "token=#{token}")
+                .body(StringBody(UPDATED_BOOKING))
+                .check(status().is(200))
+    );
+
+    private final ChainBuilder getBookingIds = exec(
+            http("Get All Booking IDs")
+                .get("/booking")
+                .check(
+                    status().is(200),
+                    jmesPath("[*]").exists()
+                )
+    );
+
+    private final ChainBuilder deleteBooking = exec(
+            http("Delete Booking")
+                .delete("/booking/#{bookingId}")
+                .header("Cookie", "token=#{token}")
+                .check(status().is(201))
+    ).exec(session -> {
+        // The failed flag is sticky, so an earlier KO leaves the ID to the teardown, which tolerates 405
+        if (createdBookings != null && !session.isFailed()) {
+            createdBookings.remove(session.getInt("bookingId"));
+        }
+        return session;
+    });
+
+    private final ScenarioBuilder scn = scenario("Booking CRUD Workload")
+            .exec(authenticate)
+            .repeat(ITERATIONS).on(
+                exec(createBooking)
+                    .exitHereIfFailed()
+                    .pause(THINK_MIN, THINK_MAX)
+                    .repeat(OPERATIONS_PER_BOOKING).on(
+                        randomSwitch().on(
+                            percent(share(READ_WEIGHT)).then(getBooking),
+                            percent(share(UPDATE_WEIGHT)).then(updateBooking),
+                            percent(share(LIST_WEIGHT)).then(getBookingIds)
+                        ).pause(THINK_MIN, THINK_MAX)
                     )
+                    .exec(deleteBooking)
+                    .pause(THINK_MIN, THINK_MAX)
             );
 
     {
         setUp(
-            scn.injectOpen(
-                rampUsers(10).during(5)
-            )
+            scn.injectOpen(LoadProfiles.forName(LoadProfiles.selected()))
         ).protocols(httpProtocol)
-         .assertions(
-            global().responseTime().max().lt(2000),
-            global().successfulRequests().percent().gt(95.0)
-         );
+         .assertions(SloAssertions.load());
+    }
+
+    @Override
+    public void after() {
+        bookingFeeder.close();
+        if (createdBookings != null && createdBookings.size() > 0) {
+            new AsyncBookingApiClient().deleteTrackedBookings();
+        }
+        if (stubServer != null) {
+            stubServer.stop();
+        }
+    }
+
+    // Rounded down to two decimals so the shares never add up to more than 100%
+    private static double share(int weight) {
+        return Math.floor(10_000.0 * weight / (READ_WEIGHT + UPDATE_WEIGHT + LIST_WEIGHT)) / 100;
     }
-} 
\ No newline at end of file
+}
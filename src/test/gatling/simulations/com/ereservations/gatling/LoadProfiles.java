@@ -0,0 +1,103 @@
+package com.ereservations.gatling;
+
+import io.gatling.javaapi.core.OpenInjectionStep;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Properties;
+
+import static io.gatling.javaapi.core.CoreDsl.*;
+
+/**
+ * Named injection profiles for the booking simulations. Parameters come from
+ * {@code load-profiles.properties} on the Gatling resources path and can be overridden with system
+ * properties, so the same simulation serves as smoke, ramp, step, spike, soak or arrival-rate gate.
+ */
+public final class LoadProfiles {
+    private static final Properties defaults = loadDefaults();
+
+    private LoadProfiles() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static String selected() {
+        return property("load.profile");
+    }
+
+    public static OpenInjectionStep[] forName(String profile) {
+        switch (profile) {
+            case "smoke":
+                return new OpenInjectionStep[] {
+                    atOnceUsers(intProperty("smoke.users"))
+                };
+            case "ramp":
+                return new OpenInjectionStep[] {
+                    rampUsers(intProperty("users")).during(seconds("ramp.seconds"))
+                };
+            case "step":
+                return new OpenInjectionStep[] {
+                    incrementUsersPerSec(doubleProperty("step.users.per.sec"))
+                        .times(intProperty("step.count"))
+                        .eachLevelLasting(seconds("step.level.seconds"))
+                        .separatedByRampsLasting(seconds("step.ramp.seconds"))
+                        .startingFrom(0)
+                };
+            case "spike":
+                return new OpenInjectionStep[] {
+                    constantUsersPerSec(doubleProperty("spike.baseline.users.per.sec"))
+                        .during(seconds("spike.baseline.seconds")),
+                    stressPeakUsers(intProperty("spike.peak.users")).during(seconds("spike.peak.seconds")),
+                    constantUsersPerSec(doubleProperty("spike.baseline.users.per.sec"))
+                        .during(seconds("spike.baseline.seconds"))
+                };
+            case "soak":
+                return new OpenInjectionStep[] {
+                    rampUsersPerSec(0).to(doubleProperty("soak.users.per.sec")).during(seconds("soak.ramp.seconds")),
+                    constantUsersPerSec(doubleProperty("soak.users.per.sec")).during(seconds("soak.seconds"))
+                };
+            case "constant-arrival-rate":
+                return new OpenInjectionStep[] {
+                    constantUsersPerSec(doubleProperty("arrival.users.per.sec"))
+                        .during(seconds("arrival.seconds"))
+                        .randomized()
+                };
+            default:
+                throw new IllegalArgumentException("Unknown load profile: " + profile
+                        + " (expected smoke, ramp, step, spike, soak or constant-arrival-rate)");
+        }
+    }
+
+    private static String property(String key) {
+        String value = System.getProperty(key, defaults.getProperty(key));
+        if (value == null) {
+            throw new IllegalStateException("Missing load profile property: " + key);
+        }
+        return value.trim();
+    }
+
+    private static int intProperty(String key) {
+        return Integer.parseInt(property(key));
+    }
+
+    private static double doubleProperty(String key) {
+        return Double.parseDouble(property(key));
+    }
+
+    private static Duration seconds(String key) {
+        return Duration.ofSeconds(Long.parseLong(property(key)));
+    }
+
+    private static Properties loadDefaults() {
+        Properties properties = new Properties();
+        try (InputStream input = LoadProfiles.class.getClassLoader().getResourceAsStream("load-profiles.properties")) {
+            if (input != null) {
+                properties.load(input);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load load-profiles.properties", e);
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,90 @@
+package com.ereservations.gatling;
+
+import io.gatling.javaapi.core.Assertion;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.gatling.javaapi.core.CoreDsl.*;
+
+/**
+ * Builds Gatling assertions from the checked-in SLO file ({@code slo.csv} on the resources path, or
+ * {@code -Dslo.file=<path>}). Each row is {@code request,p95 ms,p99 ms,success % above,max ms}; the
+ * request name {@code global} targets every request and empty or missing columns are skipped.
+ */
+public final class SloAssertions {
+    private static final String GLOBAL = "global";
+
+    private SloAssertions() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static List<Assertion> load() {
+        List<Assertion> assertions = new ArrayList<>();
+        try (BufferedReader reader = open()) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                addRow(assertions, line.split(",", -1));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read SLO file", e);
+        }
+        return assertions;
+    }
+
+    private static void addRow(List<Assertion> assertions, String[] columns) {
+        if (columns.length < 3) {
+            throw new IllegalArgumentException("Malformed SLO row: " + String.join(",", columns));
+        }
+        String request = columns[0].trim();
+        boolean global = GLOBAL.equals(request);
+        if (!columns[1].isBlank()) {
+            int p95 = Integer.parseInt(columns[1].trim());
+            assertions.add(global
+                    ? global().responseTime().percentile(95.0).lt(p95)
+                    : details(request).responseTime().percentile(95.0).lt(p95));
+        }
+        if (!columns[2].isBlank()) {
+            int p99 = Integer.parseInt(columns[2].trim());
+            assertions.add(global
+                    ? global().responseTime().percentile(99.0).lt(p99)
+                    : details(request).responseTime().percentile(99.0).lt(p99));
+        }
+        if (columns.length > 3 && !columns[3].isBlank()) {
+            double successAbove = Double.parseDouble(columns[3].trim());
+            assertions.add(global
+                    ? global().successfulRequests().percent().gt(successAbove)
+                    : details(request).successfulRequests().percent().gt(successAbove));
+        }
+        if (columns.length > 4 && !columns[4].isBlank()) {
+            int max = Integer.parseInt(columns[4].trim());
+            assertions.add(global
+                    ? global().responseTime().max().lt(max)
+                    : details(request).responseTime().max().lt(max));
+        }
+    }
+
+    private static BufferedReader open() throws IOException {
+        String file = System.getProperty("slo.file");
+        if (file != null) {
+            return Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8);
+        }
+        InputStream input = SloAssertions.class.getClassLoader().getResourceAsStream("slo.csv");
+        if (input == null) {
+            throw new IllegalStateException("slo.csv not found on the classpath");
+        }
+        return new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+    }
+}
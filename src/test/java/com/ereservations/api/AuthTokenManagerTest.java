@@ -0,0 +1,160 @@
+package com.ereservations.api;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Unit tests for the single-flight token cache. The fetcher hands out futures the test completes
+ * itself, so concurrent callers can be held while a refresh is in flight.
+ */
+public class AuthTokenManagerTest {
+
+    private static final long TTL = TimeUnit.MINUTES.toMillis(10);
+
+    private final List<CompletableFuture<String>> fetches = new CopyOnWriteArrayList<>();
+
+    @BeforeMethod
+    public void clearFetches() {
+        fetches.clear();
+    }
+
+    // Starts a pending fetch per call; complete fetches.get(i) to answer it
+    private Supplier<CompletableFuture<String>> fetcher() {
+        return () -> {
+            CompletableFuture<String> fetch = new CompletableFuture<>();
+            fetches.add(fetch);
+            return fetch;
+        };
+    }
+
+    @Test(description = "Concurrent callers without a token share a single fetch")
+    public void testConcurrentCallersShareOneFetch() throws Exception {
+        AuthTokenManager tokens = new AuthTokenManager(fetcher(), TTL, 0);
+        int callers = 32;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return tokens.getToken(5000);
+                }));
+            }
+            start.countDown();
+            // Let every caller reach the in-flight refresh before answering it
+            while (fetches.isEmpty()) {
+                Thread.sleep(1);
+            }
+            Thread.sleep(50);
+            fetches.get(0).complete("token-1");
+
+            for (Future<String> result : results) {
+                Assert.assertEquals(result.get(5, TimeUnit.SECONDS), "token-1", "Token handed to a caller");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(fetches.size(), 1, "Fetches started");
+        Assert.assertEquals(tokens.getRefreshCount(), 1L, "Refreshes");
+    }
+
+    @Test(description = "A cached token is reused until invalidated")
+    public void testInvalidateForcesRefetch() {
+        AuthTokenManager tokens = new AuthTokenManager(fetcher(), TTL, 0);
+        CompletableFuture<String> first = tokens.getTokenAsync();
+        fetches.get(0).complete("token-1");
+
+        Assert.assertEquals(first.join(), "token-1", "First token");
+        Assert.assertEquals(tokens.getToken(), "token-1", "Cached token");
+        Assert.assertEquals(fetches.size(), 1, "Fetches while the token was cached");
+
+        tokens.invalidate();
+        CompletableFuture<String> second = tokens.getTokenAsync();
+        Assert.assertFalse(second.isDone(), "Invalidated token served");
+        fetches.get(1).complete("token-2");
+        Assert.assertEquals(second.join(), "token-2", "Token after invalidation");
+    }
+
+    @Test(description = "A token close to expiry is still served while one caller refreshes it ahead of time")
+    public void testRefreshAheadServesCurrentToken() {
+        AuthTokenManager tokens = new AuthTokenManager(fetcher(), TTL, TTL);
+        tokens.getTokenAsync();
+        fetches.get(0).complete("token-1");
+
+        for (int i = 0; i < 10; i++) {
+            CompletableFuture<String> token = tokens.getTokenAsync();
+            Assert.assertTrue(token.isDone(), "Caller waited for the refresh-ahead");
+            Assert.assertEquals(token.join(), "token-1", "Token served during the refresh-ahead");
+        }
+        Assert.assertEquals(fetches.size(), 2, "Fetches started by callers inside the refresh-ahead window");
+
+        fetches.get(1).complete("token-2");
+        Assert.assertEquals(tokens.getTokenAsync().join(), "token-2", "Token after the refresh-ahead completed");
+    }
+
+    @Test(description = "An expired token is not served")
+    public void testExpiredTokenIsRefetched() throws InterruptedException {
+        AuthTokenManager tokens = new AuthTokenManager(fetcher(), 50, 0);
+        tokens.getTokenAsync();
+        fetches.get(0).complete("token-1");
+
+        Thread.sleep(100);
+        CompletableFuture<String> token = tokens.getTokenAsync();
+        Assert.assertFalse(token.isDone(), "Expired token served");
+        fetches.get(1).complete("token-2");
+        Assert.assertEquals(token.join(), "token-2", "Token after expiry");
+    }
+
+    @Test(description = "A failed refresh is reported to every waiting caller and not cached")
+    public void testFailedRefreshIsNotCached() {
+        AuthTokenManager tokens = new AuthTokenManager(fetcher(), TTL, 0);
+        CompletableFuture<String> first = tokens.getTokenAsync();
+        CompletableFuture<String> second = tokens.getTokenAsync();
+        fetches.get(0).completeExceptionally(new IllegalStateException("auth endpoint down"));
+
+        Assert.assertTrue(first.isCompletedExceptionally() && second.isCompletedExceptionally(),
+                "Waiting callers not failed");
+        Assert.assertEquals(tokens.getFailureCount(), 1L, "Failures");
+
+        CompletableFuture<String> retry = tokens.getTokenAsync();
+        Assert.assertEquals(fetches.size(), 2, "Fetches after a failed refresh");
+        fetches.get(1).complete("token-1");
+        Assert.assertEquals(retry.join(), "token-1", "Token after the failure");
+    }
+
+    @Test(description = "A fetcher that throws or answers without a token fails the refresh instead of hanging")
+    public void testBrokenFetcherFailsRefresh() {
+        AtomicInteger calls = new AtomicInteger();
+        AuthTokenManager tokens = new AuthTokenManager(() -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("no connection");
+            }
+            return CompletableFuture.completedFuture(null);
+        }, TTL, 0);
+
+        RuntimeException thrown = Assert.expectThrows(RuntimeException.class, tokens::getToken);
+        Assert.assertTrue(thrown.getCause() instanceof IllegalStateException, "Cause " + thrown.getCause());
+        Assert.expectThrows(RuntimeException.class, tokens::getToken);
+        Assert.assertEquals(tokens.getFailureCount(), 2L, "Failures");
+    }
+
+    @Test(description = "A caller with a deadline gives up on a slow refresh",
+            expectedExceptions = DeadlineExceededException.class)
+    public void testSlowRefreshHitsDeadline() {
+        new AuthTokenManager(fetcher(), TTL, 0).getToken(50);
+    }
+}
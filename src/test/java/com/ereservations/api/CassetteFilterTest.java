@@ -0,0 +1,109 @@
+package com.ereservations.api;
+
+import com.ereservations.stub.RestfulBookerStubServer;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Unit tests for cassette matching and replay. Exchanges are recorded against an in-process
+ * {@link RestfulBookerStubServer}, which is stopped before replaying, so every replayed response
+ * must come from the cassette.
+ */
+public class CassetteFilterTest {
+
+    private static final String BOOKING = "{\"firstname\":\"Jim\",\"lastname\":\"Brown\",\"totalprice\":111,"
+            + "\"depositpaid\":true,\"bookingdates\":{\"checkin\":\"2018-01-01\",\"checkout\":\"2019-01-01\"},"
+            + "\"additionalneeds\":\"Breakfast\"}";
+    // Same booking with its keys reordered and a different value for the ignored field
+    private static final String EQUIVALENT_BOOKING = "{\"bookingdates\":{\"checkout\":\"2019-01-01\","
+            + "\"checkin\":\"2018-01-01\"},\"depositpaid\":true,\"totalprice\":111,\"lastname\":\"Brown\","
+            + "\"firstname\":\"Jim\",\"additionalneeds\":\"Lunch\"}";
+
+    private RestfulBookerStubServer stub;
+    private Path file;
+
+    @BeforeMethod
+    public void startStub() throws IOException {
+        stub = RestfulBookerStubServer.start(0);
+        file = Files.createTempFile("cassette-filter", ".cassette");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stopStub() throws IOException {
+        stub.stop();
+        Files.deleteIfExists(file);
+    }
+
+    private CassetteFilter filter(CassetteFilter.Mode mode) throws IOException {
+        return new CassetteFilter(mode, file, Set.of("additionalneeds"), List.of("Cookie", "Authorization"));
+    }
+
+    private RequestSpecification request(CassetteFilter filter) {
+        return RestAssured.given().baseUri(stub.getBaseUrl()).filter(filter).contentType(ContentType.JSON);
+    }
+
+    @Test(description = "Recorded exchanges replay offline, matching bodies by content rather than key order")
+    public void testRecordThenReplayOffline() throws IOException {
+        CassetteFilter recorder = filter(CassetteFilter.Mode.RECORD);
+        Response created = request(recorder).body(BOOKING).post("/booking");
+        String bookingPath = "/booking/" + created.jsonPath().getInt("bookingid");
+        Response fetched = request(recorder).get(bookingPath);
+        Response missing = request(recorder).get("/booking/999999");
+        recorder.save();
+        stub.stop();
+
+        CassetteFilter replayer = filter(CassetteFilter.Mode.REPLAY);
+        Response replayedCreate = request(replayer).body(EQUIVALENT_BOOKING).post("/booking");
+        Assert.assertEquals(replayedCreate.getStatusCode(), created.getStatusCode(), "Replayed create status");
+        Assert.assertEquals(replayedCreate.asString(), created.asString(), "Replayed create body");
+        Assert.assertEquals(replayedCreate.getContentType(), created.getContentType(), "Replayed content type");
+        Assert.assertEquals(request(replayer).get(bookingPath).asString(), fetched.asString(), "Replayed booking");
+        Assert.assertEquals(request(replayer).get("/booking/999999").getStatusCode(), missing.getStatusCode(),
+                "Replayed status for a missing booking");
+    }
+
+    @Test(description = "The same request made repeatedly replays each recorded response in turn")
+    public void testRepeatedRequestReplaysInOrder() throws IOException {
+        CassetteFilter recorder = filter(CassetteFilter.Mode.RECORD);
+        String before = request(recorder).get("/booking").asString();
+        request(recorder).body(BOOKING).post("/booking");
+        String after = request(recorder).get("/booking").asString();
+        recorder.save();
+        Assert.assertNotEquals(after, before, "Booking list did not change between recordings");
+
+        CassetteFilter replayer = filter(CassetteFilter.Mode.REPLAY);
+        Assert.assertEquals(request(replayer).get("/booking").asString(), before, "First replay");
+        Assert.assertEquals(request(replayer).get("/booking").asString(), after, "Second replay");
+        Assert.assertEquals(request(replayer).get("/booking").asString(), after, "Replay after the recording ran out");
+    }
+
+    @Test(description = "Requests differing in query, matched headers or body fields miss the cassette")
+    public void testDistinctRequestsMiss() throws IOException {
+        CassetteFilter recorder = filter(CassetteFilter.Mode.RECORD);
+        request(recorder).queryParam("firstname", "Jim").get("/booking");
+        request(recorder).body(BOOKING).post("/booking");
+        recorder.save();
+        stub.stop();
+
+        CassetteFilter replayer = filter(CassetteFilter.Mode.REPLAY);
+        request(replayer).queryParam("firstname", "Jim").get("/booking");
+        Assert.expectThrows(CassetteMissException.class,
+                () -> request(replayer).queryParam("firstname", "Sally").get("/booking"));
+        Assert.expectThrows(CassetteMissException.class,
+                () -> request(replayer).queryParam("firstname", "Jim").header("Cookie", "token=abc").get("/booking"));
+        Assert.expectThrows(CassetteMissException.class,
+                () -> request(replayer).body(BOOKING.replace("111", "112")).post("/booking"));
+    }
+}
@@ -0,0 +1,88 @@
+package com.ereservations.api;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for the cassette file: exchanges survive a write and a memory-mapped read, and the
+ * per-key replay cursor serves repeated requests in recording order.
+ */
+public class CassetteTest {
+
+    private Path file;
+
+    @BeforeMethod
+    public void createFile() throws IOException {
+        file = Files.createTempFile("cassette", ".cassette");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private static Cassette.Exchange exchange(int statusCode, String body) {
+        return new Cassette.Exchange(statusCode, "HTTP/1.1 " + statusCode,
+                new String[]{"Content-Type", "application/json", "ETag", "\"" + body.hashCode() + "\""},
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String body(Cassette.Exchange exchange) {
+        return new String(exchange.getBody(), StandardCharsets.UTF_8);
+    }
+
+    @Test(description = "A recorded exchange is replayed with its status, headers and body intact")
+    public void testRoundTrip() throws IOException {
+        Cassette.write(file, Map.of(7L, List.of(new Cassette.Exchange(200, "HTTP/1.1 200 OK",
+                new String[]{"Content-Type", "application/json", "X-Note", "caf\u00e9"},
+                "{\"firstname\":\"Zo\u00eb\"}".getBytes(StandardCharsets.UTF_8)))));
+
+        try (Cassette cassette = Cassette.open(file)) {
+            Cassette.Exchange replayed = cassette.next(7L);
+            Assert.assertEquals(cassette.size(), 1, "Recorded exchanges");
+            Assert.assertEquals(replayed.getStatusCode(), 200, "Status code");
+            Assert.assertEquals(replayed.getStatusLine(), "HTTP/1.1 200 OK", "Status line");
+            Assert.assertEquals(List.of(replayed.getHeaders()),
+                    List.of("Content-Type", "application/json", "X-Note", "caf\u00e9"), "Headers");
+            Assert.assertEquals(body(replayed), "{\"firstname\":\"Zo\u00eb\"}", "Body");
+        }
+    }
+
+    @Test(description = "Repeated requests replay in recording order, the last exchange repeating once they run out")
+    public void testReplayCursorPerKey() throws IOException {
+        Cassette.write(file, Map.of(
+                -3L, List.of(exchange(200, "negative")),
+                5L, List.of(exchange(200, "first"), exchange(200, "second"), exchange(404, "gone")),
+                9L, List.of(exchange(201, "other"))));
+
+        try (Cassette cassette = Cassette.open(file)) {
+            Assert.assertEquals(body(cassette.next(5L)), "first", "First replay");
+            Assert.assertEquals(body(cassette.next(9L)), "other", "Another key does not move this key's cursor");
+            Assert.assertEquals(body(cassette.next(5L)), "second", "Second replay");
+            Assert.assertEquals(cassette.next(5L).getStatusCode(), 404, "Third replay");
+            Assert.assertEquals(cassette.next(5L).getStatusCode(), 404, "Replay after the recording ran out");
+            Assert.assertEquals(body(cassette.next(-3L)), "negative", "Negative key");
+            Assert.assertNull(cassette.next(6L), "Exchange for a key that was never recorded");
+        }
+
+        try (Cassette reopened = Cassette.open(file)) {
+            Assert.assertEquals(body(reopened.next(5L)), "first", "A reopened cassette replays from the start");
+        }
+    }
+
+    @Test(description = "A file that is not a cassette is rejected",
+            expectedExceptions = IOException.class)
+    public void testRejectsOtherFiles() throws IOException {
+        Files.write(file, "not a cassette".getBytes(StandardCharsets.UTF_8));
+        Cassette.open(file).close();
+    }
+}
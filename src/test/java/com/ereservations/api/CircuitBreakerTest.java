@@ -0,0 +1,123 @@
+package com.ereservations.api;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for the circuit breaker's state machine: opening on consecutive failures, the single
+ * half-open probe, and how the probe's outcome closes or reopens the breaker.
+ */
+public class CircuitBreakerTest {
+
+    private final List<String> transitions = new CopyOnWriteArrayList<>();
+
+    private CircuitBreaker breaker(int failureThreshold, long openMillis) {
+        transitions.clear();
+        return new CircuitBreaker("GET /booking", failureThreshold, openMillis,
+                (endpoint, from, to) -> transitions.add(from + "->" + to));
+    }
+
+    @Test(description = "Only consecutive failures open the breaker, which then rejects calls")
+    public void testOpensAfterConsecutiveFailures() {
+        CircuitBreaker breaker = breaker(3, TimeUnit.MINUTES.toMillis(1));
+
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onFailure();
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.CLOSED, "State after a success reset the count");
+        Assert.assertTrue(breaker.tryAcquire(), "Closed breaker admits calls");
+
+        breaker.onFailure();
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.OPEN, "State after three consecutive failures");
+        Assert.assertFalse(breaker.tryAcquire(), "Open breaker admits a call before the open window passed");
+        Assert.assertEquals(transitions, List.of("CLOSED->OPEN"), "Transitions");
+    }
+
+    @Test(description = "A successful half-open probe closes the breaker")
+    public void testSuccessfulProbeCloses() {
+        CircuitBreaker breaker = breaker(1, 0);
+
+        breaker.onFailure();
+        Assert.assertTrue(breaker.tryAcquire(), "Probe admitted once the open window passed");
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.HALF_OPEN, "State while probing");
+        Assert.assertFalse(breaker.tryAcquire(), "A second call admitted while the probe is in flight");
+
+        breaker.onSuccess();
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.CLOSED, "State after the probe succeeded");
+        Assert.assertEquals(transitions, List.of("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED"), "Transitions");
+    }
+
+    @Test(description = "A failed half-open probe reopens the breaker for a fresh open window")
+    public void testFailedProbeReopens() throws InterruptedException {
+        CircuitBreaker breaker = breaker(5, 100);
+
+        for (int i = 0; i < 5; i++) {
+            breaker.onFailure();
+        }
+        Assert.assertFalse(breaker.tryAcquire(), "Admitted before the open window passed");
+        Thread.sleep(150);
+        Assert.assertTrue(breaker.tryAcquire(), "Probe not admitted after the open window");
+
+        breaker.onFailure();
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.OPEN, "State after the probe failed");
+        Assert.assertFalse(breaker.tryAcquire(), "Admitted although the open window restarted");
+        Assert.assertEquals(transitions, List.of("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->OPEN"), "Transitions");
+    }
+
+    @Test(description = "An aborted probe hands its slot back so the next call can probe right away")
+    public void testAbortedProbeReleasesSlot() {
+        CircuitBreaker breaker = breaker(1, 0);
+
+        breaker.onFailure();
+        Assert.assertTrue(breaker.tryAcquire(), "First probe admitted");
+        breaker.onAbort();
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.OPEN, "State after the probe was aborted");
+        Assert.assertTrue(breaker.tryAcquire(), "Next probe admitted after the abort");
+
+        breaker.onAbort();
+        breaker.onAbort();
+        Assert.assertEquals(breaker.getState(), CircuitBreaker.State.OPEN, "Repeated aborts leave the breaker open");
+    }
+
+    @Test(description = "Concurrent callers racing for the half-open probe admit exactly one")
+    public void testSingleProbeUnderContention() throws Exception {
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < 50; round++) {
+                CircuitBreaker breaker = breaker(1, 0);
+                breaker.onFailure();
+                CountDownLatch start = new CountDownLatch(1);
+                AtomicInteger admitted = new AtomicInteger();
+                List<Future<?>> calls = new CopyOnWriteArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    calls.add(executor.submit(() -> {
+                        start.await();
+                        if (breaker.tryAcquire()) {
+                            admitted.incrementAndGet();
+                        }
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> call : calls) {
+                    call.get(5, TimeUnit.SECONDS);
+                }
+                Assert.assertEquals(admitted.get(), 1, "Probes admitted in round " + round);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.ereservations.api;
+
+import com.ereservations.metrics.LatencyRegistry;
+import com.ereservations.metrics.LatencySummary;
+import com.ereservations.models.ResilienceStats;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Unit tests for retries, the retry budget and circuit breaking as wired together by the executor.
+ * Calls return canned status codes and report their own latency the way {@link LatencyFilter} does,
+ * and every executor records into a private {@link LatencyRegistry}. Backoff is zero throughout.
+ */
+public class ResilientExecutorTest {
+
+    private static final String PATH = "/booking/42";
+    private static final String ENDPOINT = "GET /booking/{id}";
+
+    private final LatencyRegistry latencies = new LatencyRegistry();
+
+    private ResilientExecutor executor(RetryBudget budget, int failureThreshold) {
+        latencies.reset();
+        return new ResilientExecutor(new RetryPolicy(3, 0, 0, Set.of("GET", "DELETE"), Set.of(503)),
+                budget, latencies, failureThreshold, TimeUnit.MINUTES.toMillis(1));
+    }
+
+    // Returns the given status codes in order, reporting a latency for each attempt
+    private static Supplier<Integer> responses(Integer... statusCodes) {
+        Deque<Integer> remaining = new ArrayDeque<>(Arrays.asList(statusCodes));
+        return () -> {
+            Assert.assertTrue(ResilientExecutor.offerAttemptLatency(TimeUnit.MILLISECONDS.toNanos(5)),
+                    "Attempt not run by the executor");
+            return remaining.removeFirst();
+        };
+    }
+
+    private long count(String endpoint) {
+        LatencySummary summary = latencies.snapshot().get(endpoint);
+        return summary == null ? 0 : summary.getCount();
+    }
+
+    @Test(description = "Retried attempts are recorded apart from the attempt whose outcome is returned")
+    public void testRetriedAttemptsRecordedSeparately() {
+        ResilientExecutor executor = executor(new RetryBudget(1.0, 0), 10);
+
+        int status = executor.execute("GET", PATH, null, responses(503, 503, 200), Integer::intValue);
+
+        Assert.assertEquals(status, 200, "Status returned after retries");
+        Assert.assertEquals(count(ENDPOINT), 1L, "Attempts recorded under the endpoint");
+        Assert.assertEquals(count(ENDPOINT + ResilientExecutor.RETRIED_SUFFIX), 2L, "Attempts recorded as retried");
+        ResilienceStats stats = executor.getStats();
+        Assert.assertEquals(stats.getAttempts(), 3L, "Attempts");
+        Assert.assertEquals(stats.getRetries(), 2L, "Retries");
+    }
+
+    @Test(description = "An exhausted retry budget hands back the last response instead of retrying")
+    public void testRetryBudgetExhaustion() {
+        ResilientExecutor executor = executor(new RetryBudget(0.5, 0), 10);
+
+        Assert.assertEquals(executor.execute("GET", PATH, null, responses(503), Integer::intValue).intValue(), 503,
+                "Status with half a token in the budget");
+        Assert.assertEquals(executor.execute("GET", PATH, null, responses(503, 200), Integer::intValue).intValue(), 200,
+                "Status once the second request completed a token");
+        Assert.assertEquals(executor.execute("GET", PATH, null, responses(503, 503), Integer::intValue).intValue(), 503,
+                "Status after the retry spent the next token");
+
+        ResilienceStats stats = executor.getStats();
+        Assert.assertEquals(stats.getAttempts(), 5L, "Attempts");
+        Assert.assertEquals(stats.getRetries(), 2L, "Retries");
+        Assert.assertEquals(stats.getRetriesDeniedByBudget(), 2L, "Retries denied by the budget");
+        Assert.assertEquals(count(ENDPOINT), 3L, "Returned attempts recorded under the endpoint");
+        Assert.assertEquals(count(ENDPOINT + ResilientExecutor.RETRIED_SUFFIX), 2L, "Attempts recorded as retried");
+    }
+
+    @Test(description = "Server errors open the endpoint's breaker, which then rejects calls without running them")
+    public void testBreakerOpensAndRejects() {
+        ResilientExecutor executor = executor(new RetryBudget(0.0, 0), 2);
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<Integer> failing = () -> {
+            calls.incrementAndGet();
+            return 500;
+        };
+
+        executor.execute("GET", PATH, null, failing, Integer::intValue);
+        executor.execute("GET", "/booking/7", null, failing, Integer::intValue);
+        Assert.expectThrows(CircuitBreakerOpenException.class,
+                () -> executor.execute("GET", PATH, null, failing, Integer::intValue));
+        Assert.assertEquals(executor.execute("GET", "/booking", null, responses(200), Integer::intValue).intValue(), 200,
+                "Another endpoint's breaker opened too");
+
+        Assert.assertEquals(calls.get(), 2, "Calls run");
+        ResilienceStats stats = executor.getStats();
+        Assert.assertEquals(stats.getBreakerRejections(), 1L, "Breaker rejections");
+        Assert.assertEquals(stats.getBreakerTransitions(), Map.of(ENDPOINT + " CLOSED->OPEN", 1L), "Breaker transitions");
+        Assert.assertEquals(stats.getBreakerStates().get(ENDPOINT), "OPEN", "Breaker state");
+    }
+
+    @Test(description = "A DELETE that may have reached the server is not repeated; a refused connect is")
+    public void testDeleteRetriedOnlyOnConnectFailure() {
+        ResilientExecutor executor = executor(new RetryBudget(1.0, 0), 10);
+        AtomicInteger attempts = new AtomicInteger();
+
+        UncheckedIOException readTimeout = Assert.expectThrows(UncheckedIOException.class,
+                () -> executor.execute("DELETE", PATH, null, () -> {
+                    attempts.incrementAndGet();
+                    throw new UncheckedIOException(new SocketTimeoutException("Read timed out"));
+                }, Integer::intValue));
+        Assert.assertTrue(readTimeout.getCause() instanceof SocketTimeoutException, "Original error rethrown");
+        Assert.assertEquals(attempts.getAndSet(0), 1, "DELETE attempts after a read timeout");
+
+        int status = executor.execute("DELETE", PATH, null, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new UncheckedIOException(new ConnectException("Connection refused"));
+            }
+            return 201;
+        }, Integer::intValue);
+        Assert.assertEquals(status, 201, "Status after retrying a refused connect");
+        Assert.assertEquals(attempts.get(), 2, "DELETE attempts after a refused connect");
+    }
+
+    @Test(description = "A call whose deadline passes frees the half-open probe slot without counting a failure")
+    public void testDeadlineReleasesProbe() {
+        ResilientExecutor executor = new ResilientExecutor(new RetryPolicy(0, 0, 0, Set.of("GET"), Set.of(503)),
+                new RetryBudget(0.0, 0), latencies, 1, 0);
+
+        executor.execute("GET", PATH, null, responses(500), Integer::intValue);
+        Assert.expectThrows(DeadlineExceededException.class, () -> executor.execute("GET", PATH, null, () -> {
+            throw new DeadlineExceededException("GET " + PATH);
+        }, Integer::intValue));
+        Assert.assertEquals(executor.getStats().getBreakerStates().get(ENDPOINT), "OPEN", "State after the aborted probe");
+        Assert.assertEquals(executor.execute("GET", PATH, null, responses(200), Integer::intValue).intValue(), 200,
+                "Next probe not admitted");
+        Assert.assertEquals(executor.getStats().getBreakerStates().get(ENDPOINT), "CLOSED", "State after the probe succeeded");
+    }
+
+    @Test(description = "Async calls retry transient statuses and record the returned attempt under the endpoint")
+    public void testAsyncRetry() throws Exception {
+        ResilientExecutor executor = executor(new RetryBudget(1.0, 0), 10);
+        Deque<Integer> statusCodes = new ArrayDeque<>(Arrays.asList(503, 200));
+
+        CompletableFuture<Integer> result = executor.executeAsync("GET", PATH, null,
+                () -> CompletableFuture.completedFuture(statusCodes.removeFirst()), Integer::intValue);
+
+        Assert.assertEquals(result.get(5, TimeUnit.SECONDS).intValue(), 200, "Status returned after the retry");
+        Assert.assertEquals(count(ENDPOINT), 1L, "Attempts recorded under the endpoint");
+        Assert.assertEquals(count(ENDPOINT + ResilientExecutor.RETRIED_SUFFIX), 1L, "Attempts recorded as retried");
+    }
+}
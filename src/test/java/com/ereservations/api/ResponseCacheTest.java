@@ -0,0 +1,169 @@
+package com.ereservations.api;
+
+import com.ereservations.models.CacheStats;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.response.Response;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Unit tests for the response cache: freshness, conditional revalidation, LRU eviction and
+ * invalidation, including an invalidation that lands while a fetch is in flight. Fetches return
+ * canned responses and record the conditional headers they were given.
+ */
+public class ResponseCacheTest {
+
+    private static final long NO_TTL = 0;
+    private static final long LONG_TTL = TimeUnit.MINUTES.toMillis(1);
+
+    private final List<Map<String, String>> requests = new ArrayList<>();
+
+    @BeforeMethod
+    public void clearRequests() {
+        requests.clear();
+    }
+
+    private static Response response(int statusCode, String body, String header, String value) {
+        ResponseBuilder builder = new ResponseBuilder()
+                .setStatusCode(statusCode)
+                .setStatusLine("HTTP/1.1 " + statusCode)
+                .setBody(body);
+        if (header != null) {
+            builder.setHeader(header, value);
+        }
+        return builder.build();
+    }
+
+    // Records each fetch's conditional headers and returns the given response
+    private Function<Map<String, String>, Response> fetch(Response response) {
+        return conditionalHeaders -> {
+            requests.add(conditionalHeaders);
+            return response;
+        };
+    }
+
+    @Test(description = "A fresh entry is served without a request")
+    public void testFreshEntryIsServedFromCache() {
+        ResponseCache cache = new ResponseCache(LONG_TTL, 10);
+
+        Assert.assertEquals(cache.get("/booking/1", fetch(response(200, "one", null, null)), Response::asString), "one",
+                "First read");
+        Assert.assertEquals(cache.get("/booking/1", fetch(response(200, "changed", null, null)), Response::asString),
+                "one", "Second read");
+
+        Assert.assertEquals(requests.size(), 1, "Requests sent");
+        CacheStats stats = cache.getStats();
+        Assert.assertEquals(stats.getHits(), 1L, "Hits");
+        Assert.assertEquals(stats.getMisses(), 1L, "Misses");
+    }
+
+    @Test(description = "A stale entry is revalidated with its ETag and reused on 304 without decoding")
+    public void testStaleEntryRevalidatedWithEtag() {
+        ResponseCache cache = new ResponseCache(NO_TTL, 10);
+        cache.get("/booking/1", fetch(response(200, "one", "ETag", "\"v1\"")), Response::asString);
+
+        String revalidated = cache.get("/booking/1", fetch(response(304, "", null, null)), response -> {
+            Assert.fail("A 304 was decoded");
+            return null;
+        });
+
+        Assert.assertEquals(revalidated, "one", "Value after a 304");
+        Assert.assertEquals(requests, List.of(Map.of(), Map.of("If-None-Match", "\"v1\"")), "Conditional headers sent");
+        Assert.assertEquals(cache.getStats().getRevalidations(), 1L, "Revalidations");
+    }
+
+    @Test(description = "Without an ETag a stale entry is revalidated with Last-Modified, and a 200 replaces it")
+    public void testStaleEntryRevalidatedWithLastModified() {
+        ResponseCache cache = new ResponseCache(NO_TTL, 10);
+        String lastModified = "Tue, 01 Sep 2026 10:00:00 GMT";
+        cache.get("/booking", fetch(response(200, "[1]", "Last-Modified", lastModified)), Response::asString);
+
+        Assert.assertEquals(cache.get("/booking", fetch(response(200, "[1,2]", null, null)), Response::asString), "[1,2]",
+                "Value after the resource changed");
+        Assert.assertEquals(requests.get(1), Map.of("If-Modified-Since", lastModified), "Conditional headers sent");
+        Assert.assertEquals(cache.get("/booking", fetch(response(200, "[1,2,3]", null, null)), Response::asString),
+                "[1,2,3]", "Value after a response without validators");
+        Assert.assertEquals(requests.get(2), Map.of(), "Conditional headers sent without a validator");
+    }
+
+    @Test(description = "Responses other than 200 are returned but not cached")
+    public void testErrorsAreNotCached() {
+        ResponseCache cache = new ResponseCache(LONG_TTL, 10);
+
+        Assert.assertEquals(cache.get("/booking/9", fetch(response(404, "Not Found", null, null)), Response::getStatusCode)
+                .intValue(), 404, "First status");
+        Assert.assertEquals(cache.get("/booking/9", fetch(response(200, "nine", null, null)), Response::asString), "nine",
+                "Value once the booking exists");
+        Assert.assertEquals(requests.size(), 2, "Requests sent");
+    }
+
+    @Test(description = "Invalidating a path drops its query variants but not other paths")
+    public void testInvalidateDropsQueryVariants() {
+        ResponseCache cache = new ResponseCache(LONG_TTL, 10);
+        for (String path : List.of("/booking", "/booking?firstname=Jim", "/booking/1")) {
+            cache.get(path, fetch(response(200, path, null, null)), Response::asString);
+        }
+
+        cache.invalidate("/booking");
+
+        Assert.assertEquals(cache.getStats().getInvalidations(), 2L, "Invalidated entries");
+        Assert.assertEquals(cache.getStats().getSize(), 1, "Entries left");
+        cache.get("/booking/1", fetch(response(200, "changed", null, null)), Response::asString);
+        Assert.assertEquals(requests.size(), 3, "Requests sent after reading an entry that was kept");
+    }
+
+    @Test(description = "A response fetched before an invalidation is returned but not stored")
+    public void testInvalidationRacingFetchIsNotCached() throws Exception {
+        ResponseCache cache = new ResponseCache(LONG_TTL, 10);
+        CountDownLatch fetchStarted = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+
+        CompletableFuture<String> read = CompletableFuture.supplyAsync(() -> cache.get("/booking/1", headers -> {
+            fetchStarted.countDown();
+            try {
+                Assert.assertTrue(invalidated.await(5, TimeUnit.SECONDS), "Invalidation did not happen");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            // The server answered before it applied the concurrent write
+            return response(200, "before update", "ETag", "\"v1\"");
+        }, Response::asString));
+        Assert.assertTrue(fetchStarted.await(5, TimeUnit.SECONDS), "Fetch did not start");
+        cache.invalidate("/booking/1");
+        invalidated.countDown();
+
+        Assert.assertEquals(read.get(5, TimeUnit.SECONDS), "before update", "Value returned to the racing reader");
+        Assert.assertEquals(cache.getStats().getSize(), 0, "Entries stored from the racing fetch");
+        Assert.assertEquals(cache.get("/booking/1", fetch(response(200, "after update", null, null)), Response::asString),
+                "after update", "Next read");
+        Assert.assertEquals(requests, List.of(Map.of()), "Conditional headers sent by the next read");
+    }
+
+    @Test(description = "The least recently used entry is evicted once the cache is full")
+    public void testLeastRecentlyUsedEntryIsEvicted() {
+        ResponseCache cache = new ResponseCache(LONG_TTL, 2);
+        cache.get("/booking/1", fetch(response(200, "one", null, null)), Response::asString);
+        cache.get("/booking/2", fetch(response(200, "two", null, null)), Response::asString);
+        cache.get("/booking/1", fetch(response(200, "one", null, null)), Response::asString);
+
+        cache.get("/booking/3", fetch(response(200, "three", null, null)), Response::asString);
+        cache.get("/booking/1", fetch(response(200, "one", null, null)), Response::asString);
+        Assert.assertEquals(requests.size(), 3, "Requests sent while the recently used entry stayed cached");
+        cache.get("/booking/2", fetch(response(200, "two", null, null)), Response::asString);
+        Assert.assertEquals(requests.size(), 4, "Requests sent after reading the evicted entry");
+
+        CacheStats stats = cache.getStats();
+        Assert.assertEquals(stats.getEvictions(), 2L, "Evictions");
+        Assert.assertEquals(stats.getSize(), 2, "Entries");
+    }
+}
@@ -0,0 +1,56 @@
+package com.ereservations.api;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the retry budget. A zero reserve keeps the balance independent of the clock, so
+ * only request deposits can fund a retry.
+ */
+public class RetryBudgetTest {
+
+    @Test(description = "Retries are funded only by the configured share of requests")
+    public void testRetriesLimitedToRatioOfRequests() {
+        RetryBudget budget = new RetryBudget(0.2, 0);
+
+        Assert.assertFalse(budget.tryAcquireRetry(), "Retry granted before any request");
+        int granted = 0;
+        for (int i = 0; i < 10; i++) {
+            budget.onRequest();
+            if (budget.tryAcquireRetry()) {
+                granted++;
+            }
+        }
+        Assert.assertEquals(granted, 2, "Retries granted for ten requests at a ratio of 0.2");
+        Assert.assertFalse(budget.tryAcquireRetry(), "Retry granted once the budget was spent");
+    }
+
+    @Test(description = "A partial token does not fund a retry")
+    public void testPartialTokenIsNotEnough() {
+        RetryBudget budget = new RetryBudget(0.5, 0);
+
+        budget.onRequest();
+        Assert.assertFalse(budget.tryAcquireRetry(), "Retry granted with half a token");
+        budget.onRequest();
+        Assert.assertTrue(budget.tryAcquireRetry(), "Retry refused with a whole token");
+        Assert.assertFalse(budget.tryAcquireRetry(), "Retry granted twice from one token");
+    }
+
+    @Test(description = "A burst of successful traffic cannot bank an unbounded number of retries")
+    public void testBalanceIsCapped() {
+        RetryBudget budget = new RetryBudget(1.0, 0);
+
+        for (int i = 0; i < 100; i++) {
+            budget.onRequest();
+        }
+        Assert.assertTrue(budget.tryAcquireRetry(), "Retry refused after a burst of requests");
+        Assert.assertFalse(budget.tryAcquireRetry(), "Balance exceeded its cap of one token");
+    }
+
+    @Test(description = "The reserve lets a quiet run retry without prior traffic")
+    public void testReserveFundsRetriesWithoutTraffic() {
+        RetryBudget budget = new RetryBudget(0.0, 3);
+
+        Assert.assertTrue(budget.tryAcquireRetry(), "Retry refused although the reserve is funded");
+    }
+}
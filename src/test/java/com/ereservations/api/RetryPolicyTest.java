@@ -0,0 +1,72 @@
+package com.ereservations.api;
+
+import org.apache.http.conn.ConnectTimeoutException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Unit tests for which calls the retry policy repeats and how long it waits between attempts.
+ */
+public class RetryPolicyTest {
+
+    private final RetryPolicy policy = new RetryPolicy(3, 100, 1000, Set.of("GET", "DELETE"), Set.of(503));
+
+    @Test(description = "Only configured methods and status codes are retryable")
+    public void testRetryableMethodsAndStatuses() {
+        Assert.assertTrue(policy.isRetryable("get"), "GET is retryable regardless of case");
+        Assert.assertFalse(policy.isRetryable("POST"), "POST is not idempotent");
+        Assert.assertTrue(policy.isRetryableStatus(503), "503 is transient");
+        Assert.assertFalse(policy.isRetryableStatus(500), "500 is not configured as transient");
+        Assert.assertFalse(new RetryPolicy(0, 100, 1000, Set.of("GET"), Set.of(503)).isRetryable("GET"),
+                "A retry count of zero disables retries");
+    }
+
+    @Test(description = "A DELETE is only repeated when the first attempt cannot have reached the server")
+    public void testDeleteRetriedOnlyOnConnectFailure() {
+        Exception readTimeout = new UncheckedIOException(new SocketTimeoutException("Read timed out"));
+        Exception refused = new RuntimeException(new UncheckedIOException(new ConnectException("Connection refused")));
+
+        Assert.assertFalse(policy.isRetryableError("DELETE", readTimeout), "DELETE retried after a read timeout");
+        Assert.assertTrue(policy.isRetryableError("DELETE", refused), "DELETE not retried after a refused connect");
+        Assert.assertTrue(policy.isRetryableError("DELETE", new ConnectTimeoutException("connect timed out")),
+                "DELETE not retried after a connect timeout");
+        Assert.assertTrue(policy.isRetryableError("GET", readTimeout), "GET not retried after a read timeout");
+    }
+
+    @Test(description = "Backoff is jittered between zero and the capped exponential ceiling")
+    public void testBackoffStaysWithinCeiling() {
+        long[] ceilings = {100, 200, 400, 800, 1000, 1000};
+        for (int retry = 1; retry <= ceilings.length; retry++) {
+            long max = 0;
+            for (int i = 0; i < 1000; i++) {
+                long backoff = policy.backoffMillis(retry);
+                Assert.assertTrue(backoff >= 0 && backoff <= ceilings[retry - 1],
+                        "Backoff " + backoff + " for retry " + retry + " outside [0, " + ceilings[retry - 1] + "]");
+                max = Math.max(max, backoff);
+            }
+            Assert.assertTrue(max > ceilings[retry - 1] / 2, "Backoff for retry " + retry + " never came near its ceiling");
+        }
+    }
+
+    @Test(description = "Defaults and overrides are read from configuration")
+    public void testFromConfig() {
+        Properties config = new Properties();
+        config.setProperty("retry.count", "1");
+        config.setProperty("retry.methods", " get , head ");
+        config.setProperty("retry.status.codes", "502");
+
+        RetryPolicy configured = RetryPolicy.fromConfig(config);
+
+        Assert.assertEquals(configured.getMaxRetries(), 1, "Max retries");
+        Assert.assertTrue(configured.isRetryable("HEAD"), "HEAD from the configured list");
+        Assert.assertFalse(configured.isRetryable("DELETE"), "DELETE not in the configured list");
+        Assert.assertTrue(configured.isRetryableStatus(502), "502 from the configured list");
+        Assert.assertFalse(configured.isRetryableStatus(503), "503 not in the configured list");
+    }
+}
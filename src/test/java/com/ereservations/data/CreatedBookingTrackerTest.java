@@ -0,0 +1,173 @@
+package com.ereservations.data;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Unit tests for the created-booking journal: replay after a crash, compaction, host checks, and
+ * how concurrent and exited runs share a journal directory. A crash is simulated by copying the
+ * journal of a tracker that was never closed, or by writing journal bytes directly.
+ */
+public class CreatedBookingTrackerTest {
+
+    private static final String HOST = "http://localhost:3001";
+    private static final int MAGIC = 0x43424a31;
+
+    private Path dir;
+    private Path journal;
+
+    @BeforeMethod
+    public void createDirectory() throws IOException {
+        dir = Files.createTempDirectory("created-bookings");
+        journal = dir.resolve("localhost-3001.journal");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    // The bytes a tracker for baseUrl leaves behind after journaling these entries
+    private static byte[] journalBytes(String baseUrl, int... entries) {
+        byte[] url = baseUrl.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer bytes = ByteBuffer.allocate(Integer.BYTES + Short.BYTES + url.length + entries.length * Integer.BYTES);
+        bytes.putInt(MAGIC).putShort((short) url.length).put(url);
+        for (int entry : entries) {
+            bytes.putInt(entry);
+        }
+        return bytes.array();
+    }
+
+    @Test(description = "IDs are tracked as a set, and removing some keeps the rest findable")
+    public void testTracksIds() throws IOException {
+        try (CreatedBookingTracker tracker = CreatedBookingTracker.open(journal, HOST)) {
+            IntStream.rangeClosed(1, 1000).forEach(tracker::add);
+            tracker.add(5);
+            tracker.add(0);
+            tracker.add(-3);
+            IntStream.rangeClosed(1, 1000).filter(id -> id % 2 == 0).forEach(tracker::remove);
+            tracker.remove(2);
+
+            Assert.assertEquals(tracker.size(), 500, "Tracked IDs");
+            Assert.assertTrue(tracker.contains(999), "Odd ID kept");
+            Assert.assertFalse(tracker.contains(998), "Even ID removed");
+            Assert.assertEquals(tracker.toArray()[0], 1, "Smallest ID");
+            Assert.assertEquals(tracker.toArray()[499], 999, "Largest ID");
+            IntStream.rangeClosed(1, 1000).filter(id -> id % 2 == 1).forEach(tracker::remove);
+        }
+    }
+
+    @Test(description = "A journal left by a run that crashed before closing is replayed by the next run")
+    public void testReopenAfterCrash() throws IOException {
+        CreatedBookingTracker crashed = CreatedBookingTracker.open(journal, HOST);
+        Path copy = Files.createDirectory(dir.resolve("after-crash")).resolve(journal.getFileName());
+        try {
+            crashed.add(11);
+            crashed.add(12);
+            crashed.add(13);
+            crashed.remove(12);
+            // The journal as it is on disk at the moment of the crash, ending in a torn record
+            Files.copy(journal, copy, StandardCopyOption.REPLACE_EXISTING);
+            Files.write(copy, new byte[]{0, 0}, StandardOpenOption.APPEND);
+        } finally {
+            crashed.close();
+        }
+
+        try (CreatedBookingTracker next = CreatedBookingTracker.open(copy, HOST)) {
+            Assert.assertEquals(next.toArray(), new int[]{11, 13}, "IDs replayed after the crash");
+            Assert.assertEquals(Files.size(copy), (long) journalBytes(HOST, 11, 13).length,
+                    "Journal size after compacting on open");
+            next.remove(11);
+            next.remove(13);
+        }
+    }
+
+    @Test(description = "Closing rewrites the journal with the remaining IDs, or deletes it when none remain")
+    public void testCompactsOnClose() throws IOException {
+        try (CreatedBookingTracker tracker = CreatedBookingTracker.open(journal, HOST)) {
+            IntStream.rangeClosed(1, 100).forEach(tracker::add);
+            IntStream.rangeClosed(1, 99).forEach(tracker::remove);
+        }
+        Assert.assertEquals(Files.readAllBytes(journal), journalBytes(HOST, 100), "Journal after close");
+
+        try (CreatedBookingTracker tracker = CreatedBookingTracker.open(journal, HOST)) {
+            Assert.assertEquals(tracker.toArray(), new int[]{100}, "IDs after reopening");
+            tracker.remove(100);
+        }
+        Assert.assertFalse(Files.exists(journal), "Empty journal kept after close");
+    }
+
+    @Test(description = "A journal written for another host is refused and left untouched")
+    public void testRefusesJournalOfAnotherHost() throws IOException {
+        byte[] foreign = journalBytes("https://restful-booker.herokuapp.com", 1, 2, 3);
+        Files.write(journal, foreign);
+
+        Assert.expectThrows(IOException.class, () -> CreatedBookingTracker.open(journal, HOST));
+        Assert.assertEquals(Files.readAllBytes(journal), foreign, "Foreign journal after the refused open");
+
+        Files.write(journal, "not a journal".getBytes(StandardCharsets.UTF_8));
+        Assert.expectThrows(IOException.class, () -> CreatedBookingTracker.open(journal, HOST));
+    }
+
+    @Test(description = "A concurrent run journals separately, and its journal is adopted once it has exited")
+    public void testConcurrentRunFallsBackAndIsAdoptedLater() throws IOException {
+        Path foreign = dir.resolve("localhost-3001.other.journal");
+        Files.write(foreign, journalBytes("http://localhost:3002", 77));
+
+        CreatedBookingTracker first = CreatedBookingTracker.open(journal, HOST);
+        CreatedBookingTracker second = CreatedBookingTracker.open(journal, HOST);
+        Path fallback = second.getJournal();
+        first.add(1);
+        second.add(2);
+        Assert.assertNotEquals(fallback, journal, "Concurrent run journaled to the locked journal");
+        Assert.assertEquals(second.toArray(), new int[]{2}, "IDs seen by the concurrent run");
+        second.close();
+        first.close();
+
+        try (CreatedBookingTracker next = CreatedBookingTracker.open(journal, HOST)) {
+            Assert.assertEquals(next.toArray(), new int[]{1, 2}, "IDs after adopting the exited run's journal");
+            Assert.assertFalse(Files.exists(fallback), "Adopted journal kept");
+            Assert.assertEquals(Files.readAllBytes(foreign), journalBytes("http://localhost:3002", 77),
+                    "Sibling journal of another host");
+            next.remove(1);
+            next.remove(2);
+        }
+    }
+
+    @Test(description = "The journal of a run that is still alive is not adopted")
+    public void testLiveSiblingIsNotAdopted() throws IOException {
+        Path sibling = dir.resolve("localhost-3001.4242.journal");
+        Files.write(sibling, journalBytes(HOST, 5));
+
+        try (FileChannel live = FileChannel.open(sibling, StandardOpenOption.WRITE)) {
+            live.lock();
+            try (CreatedBookingTracker tracker = CreatedBookingTracker.open(journal, HOST)) {
+                Assert.assertEquals(tracker.size(), 0, "IDs taken from a live run");
+            }
+        }
+        Assert.assertEquals(Files.readAllBytes(sibling), journalBytes(HOST, 5), "Live run's journal");
+
+        try (CreatedBookingTracker tracker = CreatedBookingTracker.open(journal, HOST)) {
+            Assert.assertEquals(tracker.toArray(), new int[]{5}, "IDs after the run exited");
+            tracker.remove(5);
+        }
+    }
+}
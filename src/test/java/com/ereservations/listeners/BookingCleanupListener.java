@@ -0,0 +1,32 @@
+package com.ereservations.listeners;
+
+import com.ereservations.api.AsyncBookingApiClient;
+import com.ereservations.api.BaseApiClient;
+import com.ereservations.models.BulkResult;
+import lombok.extern.slf4j.Slf4j;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+/**
+ * Deletes every booking the clients created during a suite (see
+ * {@link BaseApiClient#getCreatedBookings()}), whichever test, data-provider row or failed
+ * assertion created it, plus any left behind by an earlier run that crashed. Teardown failures are
+ * logged rather than failing the suite; the IDs stay journaled for the next run.
+ */
+@Slf4j
+public class BookingCleanupListener implements ISuiteListener {
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (BaseApiClient.getCreatedBookings() == null || BaseApiClient.getCreatedBookings().size() == 0) {
+            return;
+        }
+        try {
+            BulkResult result = new AsyncBookingApiClient().deleteTrackedBookings();
+            log.info("Suite {} teardown deleted {} bookings, {} failed", suite.getName(),
+                    result.getSuccessCount(), result.getFailureCount());
+        } catch (RuntimeException e) {
+            log.error("Booking teardown after suite {} failed", suite.getName(), e);
+        }
+    }
+}
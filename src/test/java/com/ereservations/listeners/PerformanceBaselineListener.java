@@ -0,0 +1,76 @@
+package com.ereservations.listeners;
+
+import com.ereservations.api.BaseApiClient;
+import com.ereservations.metrics.BaselineComparison;
+import com.ereservations.metrics.BaselineStore;
+import com.ereservations.metrics.LatencyRegistry;
+import com.ereservations.metrics.PerformanceBaseline;
+import lombok.extern.slf4j.Slf4j;
+import org.testng.IExecutionListener;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Records per-test durations next to the per-endpoint latencies already in
+ * {@link LatencyRegistry#global()} and, once all suites have run, compares both with the stored
+ * baseline (see {@link BaselineStore}). A regression fails the run with the comparison report;
+ * per-test durations are reported but, with one sample per invocation, never fail it.
+ */
+@Slf4j
+public class PerformanceBaselineListener implements IExecutionListener, ITestListener {
+    // Durations reuse the histogram registry, keyed by test method instead of endpoint
+    private final LatencyRegistry testDurations = new LatencyRegistry();
+    private final Set<String> suites = new ConcurrentSkipListSet<>();
+    private long startNanos;
+
+    @Override
+    public void onExecutionStart() {
+        startNanos = System.nanoTime();
+    }
+
+    @Override
+    public void onStart(ITestContext context) {
+        suites.add(context.getSuite().getName());
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        // Only passing runs: a failure that bails out early would make the test look faster
+        testDurations.record(result.getTestClass().getRealClass().getSimpleName() + "." + result.getMethod().getMethodName(),
+                TimeUnit.MILLISECONDS.toNanos(result.getEndMillis() - result.getStartMillis()));
+    }
+
+    @Override
+    public void onExecutionFinish() {
+        if (BaseApiClient.isReplaying()) {
+            log.info("Responses were replayed from a cassette; skipping the performance baseline");
+            return;
+        }
+        double elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+        String suite = System.getProperty("perf.baseline.suite", String.join("+", suites));
+        Map<String, String> workload = new TreeMap<>(BaseApiClient.getWorkloadSettings());
+        workload.put("suites", suite);
+        workload.put("bulk.size", System.getProperty("bulk.size", "50"));
+        PerformanceBaseline current = PerformanceBaseline.fromRun(
+                LatencyRegistry.global().snapshot(), testDurations.snapshot(), elapsedSeconds, workload);
+        BaselineStore store = BaselineStore.forSuite(suite.isEmpty() ? "tests" : suite);
+        store.check(current)
+                .filter(BaselineComparison::hasRegressions)
+                .ifPresent(comparison -> {
+                    String regressions = comparison.getRegressions().stream()
+                            .map(delta -> delta.getCurrent().getName() + " (" + delta.getVerdict() + ")")
+                            .collect(Collectors.joining(", "));
+                    log.error("Performance regressed against {}: {}", store.getFile(), regressions);
+                    throw new IllegalStateException("Performance regressed against baseline " + store.getFile()
+                            + ": " + regressions);
+                });
+    }
+}
@@ -0,0 +1,183 @@
+package com.ereservations.listeners;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes test events to an HTML table and a JSON Lines stream from a single background thread.
+ * Test threads only enqueue onto a lock-free queue; the writer drains it in batches and flushes once
+ * {@code flushEvents} rows are pending or {@code flushIntervalMillis} has passed, and on {@link #close()}.
+ */
+@Slf4j
+class ReportEventWriter implements AutoCloseable {
+    private static final DateTimeFormatter TIMESTAMP_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+    private static final ObjectWriter jsonWriter = new ObjectMapper().writerFor(ReportEvent.class);
+
+    private final Queue<ReportEvent> queue = new ConcurrentLinkedQueue<>();
+    private final Writer htmlWriter;
+    private final Writer jsonLinesWriter;
+    private final int flushEvents;
+    private final long flushIntervalNanos;
+    private final Thread drainThread;
+    private volatile boolean closed;
+
+    ReportEventWriter(Path htmlFile, Path jsonLinesFile, int flushEvents, long flushIntervalMillis) throws IOException {
+        this.htmlWriter = Files.newBufferedWriter(htmlFile, StandardCharsets.UTF_8);
+        this.jsonLinesWriter = Files.newBufferedWriter(jsonLinesFile, StandardCharsets.UTF_8);
+        this.flushEvents = flushEvents;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        writeHtmlHeader();
+        this.drainThread = new Thread(this::drainLoop, "report-writer-" + htmlFile.getFileName());
+        this.drainThread.setDaemon(true);
+        this.drainThread.start();
+    }
+
+    void submit(ReportEvent event) {
+        if (closed) {
+            log.warn("Report writer already closed, dropping event for {}", event.getTestName());
+            return;
+        }
+        queue.offer(event);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(drainThread);
+        try {
+            drainThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            htmlWriter.write("</table>\n");
+            htmlWriter.write("</body>\n");
+            htmlWriter.write("</html>\n");
+        } catch (IOException e) {
+            log.error("Failed to write report footer", e);
+        } finally {
+            closeQuietly(htmlWriter);
+            closeQuietly(jsonLinesWriter);
+        }
+    }
+
+    private void drainLoop() {
+        int pending = 0;
+        long lastFlush = System.nanoTime();
+        while (true) {
+            boolean finishing = closed;
+            ReportEvent event;
+            while ((event = queue.poll()) != null) {
+                write(event);
+                if (++pending >= flushEvents) {
+                    flush();
+                    pending = 0;
+                    lastFlush = System.nanoTime();
+                }
+            }
+            if (finishing) {
+                flush();
+                return;
+            }
+            if (pending > 0 && System.nanoTime() - lastFlush >= flushIntervalNanos) {
+                flush();
+                pending = 0;
+                lastFlush = System.nanoTime();
+            }
+            LockSupport.parkNanos(this, flushIntervalNanos);
+        }
+    }
+
+    private void write(ReportEvent event) {
+        try {
+            htmlWriter.write(String.format(
+                "<tr class='%s'><td>%s</td><td>%s</td><td>%s</td><td>%d</td><td>%s</td></tr>\n",
+                event.getStatus().toLowerCase(), TIMESTAMP_FORMAT.format(Instant.ofEpochMilli(event.getTimestampMillis())),
+                event.getStatus(), escapeHtml(event.getTestName()), event.getDurationMillis(),
+                escapeHtml(event.getDetails())
+            ));
+            jsonLinesWriter.write(jsonWriter.writeValueAsString(event));
+            jsonLinesWriter.write('\n');
+        } catch (IOException e) {
+            log.error("Failed to write report event for {}", event.getTestName(), e);
+        }
+    }
+
+    private void flush() {
+        try {
+            htmlWriter.flush();
+            jsonLinesWriter.flush();
+        } catch (IOException e) {
+            log.error("Failed to flush report", e);
+        }
+    }
+
+    private void writeHtmlHeader() throws IOException {
+        htmlWriter.write("<!DOCTYPE html>\n");
+        htmlWriter.write("<html>\n");
+        htmlWriter.write("<head>\n");
+        htmlWriter.write("<title>Test Execution Report</title>\n");
+        htmlWriter.write("<style>\n");
+        htmlWriter.write("body { font-family: Arial, sans-serif; margin: 20px; }\n");
+        htmlWriter.write("table { border-collapse: collapse; width: 100%; }\n");
+        htmlWriter.write("th, td { border: 1px solid #ddd; padding: 8px; text-align: left; }\n");
+        htmlWriter.write("th { background-color: #f2f2f2; }\n");
+        htmlWriter.write(".pass { background-color: #dff0d8; }\n");
+        htmlWriter.write(".fail { background-color: #f2dede; }\n");
+        htmlWriter.write(".skip { background-color: #fcf8e3; }\n");
+        htmlWriter.write("</style>\n");
+        htmlWriter.write("</head>\n");
+        htmlWriter.write("<body>\n");
+        htmlWriter.write("<h1>Test Execution Report</h1>\n");
+        htmlWriter.write("<table>\n");
+        htmlWriter.write("<tr><th>Timestamp</th><th>Status</th><th>Test Name</th><th>Duration (ms)</th><th>Details</th></tr>\n");
+    }
+
+    private static String escapeHtml(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("'", "&#39;");
+    }
+
+    private static void closeQuietly(Writer writer) {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.error("Failed to close report writer", e);
+        }
+    }
+
+    /**
+     * One test lifecycle event, captured on the test thread so the timestamp reflects when it happened
+     * rather than when it was written.
+     */
+    @Value
+    static class ReportEvent {
+        long timestampMillis;
+        String status;
+        String suite;
+        String testClass;
+        String testName;
+        String thread;
+        long durationMillis;
+        String details;
+    }
+}
@@ -5,22 +5,28 @@ import org.testng.ITestContext;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
 
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 public class TestChainListener implements ITestListener {
     private static final String REPORT_DIR = "target/test-reports/";
-    private static final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-    private FileWriter reportWriter;
+    private static final DateTimeFormatter FILE_TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+    private static final int FLUSH_EVENTS = Integer.getInteger("report.flush.events", 64);
+    private static final long FLUSH_INTERVAL_MS = Long.getLong("report.flush.interval.ms", 500L);
+    // One writer per <test>, so parallel="tests" runs get separate report files
+    private final Map<ITestContext, ReportEventWriter> writers = new ConcurrentHashMap<>();
 
     @Override
     public void onStart(ITestContext context) {
         log.info("Starting test suite: {}", context.getName());
-        createReportFile();
+        createReportFile(context);
     }
 
     @Override
@@ -29,7 +35,7 @@ public class TestChainListener implements ITestListener {
         log.info("Passed tests: {}", context.getPassedTests().size());
         log.info("Failed tests: {}", context.getFailedTests().size());
         log.info("Skipped tests: {}", context.getSkippedTests().size());
-        closeReportWriter();
+        closeReportWriter(context);
     }
 
     @Override
@@ -60,68 +66,43 @@ public class TestChainListener implements ITestListener {
         writeToReport("SKIP", result);
     }
 
-    private void createReportFile() {
+    private void createReportFile(ITestContext context) {
         try {
-            new File(REPORT_DIR).mkdirs();
-            String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
-            File reportFile = new File(REPORT_DIR + "test_report_" + timestamp + ".html");
-            reportWriter = new FileWriter(reportFile);
-            writeReportHeader();
+            Path reportDir = Paths.get(REPORT_DIR);
+            Files.createDirectories(reportDir);
+            String baseName = "test_report_" + FILE_TIMESTAMP_FORMAT.format(LocalDateTime.now())
+                    + "_" + context.getName().replaceAll("[^A-Za-z0-9]+", "_");
+            writers.put(context, new ReportEventWriter(
+                    reportDir.resolve(baseName + ".html"),
+                    reportDir.resolve(baseName + ".jsonl"),
+                    FLUSH_EVENTS, FLUSH_INTERVAL_MS));
         } catch (IOException e) {
             log.error("Failed to create report file", e);
         }
     }
 
-    private void writeReportHeader() throws IOException {
-        reportWriter.write("<!DOCTYPE html>\n");
-        reportWriter.write("<html>\n");
-        reportWriter.write("<head>\n");
-        reportWriter.write("<title>Test Execution Report</title>\n");
-        reportWriter.write("<style>\n");
-        reportWriter.write("body { font-family: Arial, sans-serif; margin: 20px; }\n");
-        reportWriter.write("table { border-collapse: collapse; width: 100%; }\n");
-        reportWriter.write("th, td { border: 1px solid #ddd; padding: 8px; text-align: left; }\n");
-        reportWriter.write("th { background-color: #f2f2f2; }\n");
-        reportWriter.write(".pass { background-color: #dff0d8; }\n");
-        reportWriter.write(".fail { background-color: #f2dede; }\n");
-        reportWriter.write(".skip { background-color: #fcf8e3; }\n");
-        reportWriter.write("</style>\n");
-        reportWriter.write("</head>\n");
-        reportWriter.write("<body>\n");
-        reportWriter.write("<h1>Test Execution Report</h1>\n");
-        reportWriter.write("<table>\n");
-        reportWriter.write("<tr><th>Timestamp</th><th>Status</th><th>Test Name</th><th>Duration (ms)</th><th>Details</th></tr>\n");
-    }
-
     private void writeToReport(String status, ITestResult result) {
-        try {
-            String timestamp = DATE_FORMAT.format(new Date());
-            String testName = result.getName();
-            long duration = result.getEndMillis() - result.getStartMillis();
-            String details = "";
-
-            if (result.getThrowable() != null) {
-                details = result.getThrowable().getMessage();
-            }
-
-            reportWriter.write(String.format(
-                "<tr class='%s'><td>%s</td><td>%s</td><td>%s</td><td>%d</td><td>%s</td></tr>\n",
-                status.toLowerCase(), timestamp, status, testName, duration, details
-            ));
-            reportWriter.flush();
-        } catch (IOException e) {
-            log.error("Failed to write to report", e);
+        ReportEventWriter writer = writers.get(result.getTestContext());
+        if (writer == null) {
+            return;
         }
+        String details = result.getThrowable() != null ? result.getThrowable().getMessage() : "";
+        writer.submit(new ReportEventWriter.ReportEvent(
+                System.currentTimeMillis(),
+                status,
+                result.getTestContext().getName(),
+                result.getTestClass().getName(),
+                result.getName(),
+                Thread.currentThread().getName(),
+                result.getEndMillis() - result.getStartMillis(),
+                details
+        ));
     }
 
-    private void closeReportWriter() {
-        try {
-            reportWriter.write("</table>\n");
-            reportWriter.write("</body>\n");
-            reportWriter.write("</html>\n");
-            reportWriter.close();
-        } catch (IOException e) {
-            log.error("Failed to close report writer", e);
+    private void closeReportWriter(ITestContext context) {
+        ReportEventWriter writer = writers.remove(context);
+        if (writer != null) {
+            writer.close();
         }
     }
-} 
\ No newline at end of file
+}
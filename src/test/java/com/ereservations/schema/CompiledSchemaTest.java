@@ -0,0 +1,83 @@
+package com.ereservations.schema;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+/**
+ * Unit tests for the streaming schema validator: every violation in a body is reported with its
+ * JSON path, and bodies that are not JSON at all fail with one violation instead of an exception.
+ */
+public class CompiledSchemaTest {
+
+    private static final String VALID_BOOKING = "{\"firstname\":\"Jim\",\"lastname\":\"Brown\",\"totalprice\":111,"
+            + "\"depositpaid\":true,\"bookingdates\":{\"checkin\":\"2018-01-01\",\"checkout\":\"2019-01-01\"},"
+            + "\"additionalneeds\":\"Breakfast\"}";
+
+    @Test(description = "A well-formed booking has no violations")
+    public void testValidBooking() {
+        Assert.assertEquals(ResponseSchemas.get(ResponseSchemas.BOOKING).validate(VALID_BOOKING), List.of(),
+                "Violations for a valid booking");
+    }
+
+    @Test(description = "Every violation is collected with its path rather than stopping at the first")
+    public void testCollectsEveryViolation() {
+        String body = "{\"lastname\":\"Brown\",\"totalprice\":-5,\"depositpaid\":\"yes\","
+                + "\"bookingdates\":{\"checkin\":\"2018-13-45\",\"checkout\":\"2019-01-01\"}}";
+
+        List<String> violations = ResponseSchemas.get(ResponseSchemas.BOOKING).validate(body);
+
+        Assert.assertTrue(violations.contains("$.totalprice: -5 is below the minimum of 0"), violations.toString());
+        Assert.assertTrue(violations.contains("$.depositpaid: expected boolean but was string"), violations.toString());
+        Assert.assertTrue(violations.contains("$.bookingdates.checkin: '2018-13-45' is not a yyyy-MM-dd date"),
+                violations.toString());
+        Assert.assertTrue(violations.contains("$: missing required property 'firstname'"), violations.toString());
+        Assert.assertEquals(violations.size(), 4, "Violation count " + violations);
+    }
+
+    @Test(description = "Array items are validated with their index in the path")
+    public void testArrayItemPaths() {
+        List<String> violations = ResponseSchemas.get(ResponseSchemas.BOOKING_IDS)
+                .validate("[{\"bookingid\":1},{\"bookingid\":0},{}]");
+
+        Assert.assertEquals(violations, List.of("$[1].bookingid: 0 is below the minimum of 1",
+                "$[2]: missing required property 'bookingid'"), "Violations");
+    }
+
+    @Test(description = "A value of the wrong type is skipped whole and reported once")
+    public void testTypeMismatchSkipsNestedValue() {
+        List<String> violations = ResponseSchemas.get(ResponseSchemas.BOOKING_IDS)
+                .validate("{\"bookingid\":[1,2,{\"a\":3}]}");
+
+        Assert.assertEquals(violations, List.of("$: expected array but was object"), "Violations");
+    }
+
+    @Test(description = "Malformed, empty and trailing content is reported rather than thrown")
+    public void testMalformedBodies() {
+        CompiledSchema schema = ResponseSchemas.get(ResponseSchemas.BOOKING);
+
+        List<String> truncated = schema.validate(VALID_BOOKING.substring(0, 40));
+        Assert.assertEquals(truncated.size(), 1, "Violations " + truncated);
+        Assert.assertTrue(truncated.get(0).contains("malformed JSON"), truncated.toString());
+
+        Assert.assertEquals(schema.validate(""), List.of("$: empty document"), "Violations");
+        Assert.assertEquals(schema.validate(VALID_BOOKING + " {}"),
+                List.of("$: unexpected content after the root value"), "Violations");
+    }
+
+    @Test(description = "assertValid throws with every violation attached")
+    public void testAssertValidCarriesViolations() {
+        SchemaValidationException e = Assert.expectThrows(SchemaValidationException.class,
+                () -> ResponseSchemas.assertValid(ResponseSchemas.BOOKING, "{}"));
+
+        Assert.assertEquals(e.getViolations().size(), 5, "Violations " + e.getViolations());
+        ResponseSchemas.assertValid(ResponseSchemas.BOOKING, VALID_BOOKING);
+    }
+
+    @Test(description = "Asking for an unknown schema fails fast",
+            expectedExceptions = IllegalArgumentException.class)
+    public void testUnknownSchema() {
+        ResponseSchemas.get("no-such-schema");
+    }
+}
@@ -2,113 +2,112 @@ package com.ereservations.tests;
 
 import com.ereservations.api.BaseApiClient;
 import com.ereservations.api.BookingApiClient;
+import com.ereservations.api.Deadline;
 import com.ereservations.api.HealthCheckApiClient;
 import com.ereservations.api.PingApiClient;
 import com.ereservations.api.SystemApiClient;
 import com.ereservations.models.Booking;
-import com.ereservations.models.BookingDates;
-import com.ereservations.models.BookingResponse;
-import com.ereservations.models.HealthCheckResponse;
-import com.ereservations.models.PingResponse;
-import com.ereservations.models.SystemResponse;
+import com.ereservations.models.BookingResult;
+import com.ereservations.utils.TestContext;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import io.restassured.response.Response;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
-import org.testng.annotations.BeforeClass;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.DataProvider;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.HashMap;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.Map;
-import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
 
 public class BaseBookingTest {
-    protected static final Logger log = LogManager.getLogger(BaseBookingTest.class);
-    protected static final String CONFIG_FILE = "config.properties";
+    protected static final Logger log = LoggerFactory.getLogger(BaseBookingTest.class);
     protected static final String TEST_DATA_DIR = "src/test/resources/test-data";
     protected static final String TEST_SUITES_DIR = "src/test/resources/test-suites";
-    
-    protected static final Map<String, Object> testContext = new ConcurrentHashMap<>();
+
     protected static final ObjectMapper objectMapper = new ObjectMapper();
-    
-    protected static Properties config;
-    protected static BaseApiClient baseApiClient;
-    protected static BookingApiClient bookingApiClient;
-    protected static HealthCheckApiClient healthCheckApiClient;
-    protected static PingApiClient pingApiClient;
-    protected static SystemApiClient systemApiClient;
-
-    @BeforeClass
-    public void setup() throws IOException {
-        // Load configuration
-        config = new Properties();
-        config.load(getClass().getClassLoader().getResourceAsStream(CONFIG_FILE));
-        
-        // Initialize API clients
-        baseApiClient = new BaseApiClient(config.getProperty("api.base.url"));
-        bookingApiClient = new BookingApiClient(config.getProperty("api.base.url"));
-        healthCheckApiClient = new HealthCheckApiClient(config.getProperty("api.base.url"));
-        pingApiClient = new PingApiClient(config.getProperty("api.base.url"));
-        systemApiClient = new SystemApiClient(config.getProperty("api.base.url"));
-        
-        // Initialize test context
-        testContext.clear();
-    }
-
-    protected void validateResponse(Response response, String description, int expectedStatus) {
+
+    // Invocation scope: one context per test method call, i.e. per data-provider row. TestNG runs
+    // @BeforeMethod, the test and @AfterMethod of one invocation on the same thread.
+    private static final ThreadLocal<TestContext> invocationContext = new ThreadLocal<>();
+
+    // Every call made by one invocation, retries included, shares a single test.timeout deadline
+    private static final ThreadLocal<Deadline.Scope> invocationDeadline = new ThreadLocal<>();
+
+    // Flow scope: named chains of dependent tests within this test instance (one instance per class)
+    private final Map<String, TestContext> flowContexts = new ConcurrentHashMap<>();
+
+    // API clients are stateless, so a single instance is shared by all test threads
+    protected static final BookingApiClient apiClient = new BookingApiClient();
+    protected static final HealthCheckApiClient healthCheckApiClient = new HealthCheckApiClient();
+    protected static final PingApiClient pingApiClient = new PingApiClient();
+    protected static final SystemApiClient systemApiClient = new SystemApiClient();
+
+    @BeforeMethod(alwaysRun = true)
+    public void openInvocationContext(Method method, Object[] parameters) {
+        invocationContext.set(new TestContext(method.getName() + Arrays.toString(parameters)));
+        invocationDeadline.set(Deadline.enter(Deadline.after(BaseApiClient.getDefaultDeadlineMillis())));
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void closeInvocationContext() {
+        invocationContext.remove();
+        Deadline.Scope deadline = invocationDeadline.get();
+        if (deadline != null) {
+            deadline.close();
+            invocationDeadline.remove();
+        }
+    }
+
+    protected void validateResponse(BookingResult result, int expectedStatus, String description) {
         log.info("Validating response for: {}", description);
-        log.info("Expected status: {}, Actual status: {}", expectedStatus, response.getStatusCode());
-        
-        if (response.getStatusCode() != expectedStatus) {
+        log.info("Expected status: {}, Actual status: {}", expectedStatus, result.getStatusCode());
+
+        if (result.getStatusCode() != expectedStatus) {
             log.error("Response validation failed for: {}", description);
-            log.error("Response body: {}", response.getBody().asString());
+            log.error("Response body: {}", result.getBody());
         }
-        
-        assert response.getStatusCode() == expectedStatus : 
-            String.format("Expected status %d but got %d for %s", 
-                expectedStatus, response.getStatusCode(), description);
+
+        assert result.getStatusCode() == expectedStatus :
+            String.format("Expected status %d but got %d for %s",
+                expectedStatus, result.getStatusCode(), description);
     }
 
-    protected void validateSecurity(Response response, String description) {
+    protected void validateSecurity(BookingResult result, String description) {
         log.info("Validating security for: {}", description);
-        
+
         // Check for common security headers
-        assert response.getHeader("X-Content-Type-Options") != null : 
+        assert result.getHeader("X-Content-Type-Options") != null :
             "Missing X-Content-Type-Options header";
-        assert response.getHeader("X-Frame-Options") != null : 
+        assert result.getHeader("X-Frame-Options") != null :
             "Missing X-Frame-Options header";
-        assert response.getHeader("X-XSS-Protection") != null : 
+        assert result.getHeader("X-XSS-Protection") != null :
             "Missing X-XSS-Protection header";
-        
+
         log.info("Security validation passed for: {}", description);
     }
 
-    protected void validateInput(Booking booking, String description) {
+    protected void validateInput(JsonNode data, String description) {
         log.info("Validating input for: {}", description);
-        
-        // Validate required fields
-        assert booking.getFirstname() != null && !booking.getFirstname().isEmpty() : 
-            "Firstname is required";
-        assert booking.getLastname() != null && !booking.getLastname().isEmpty() : 
-            "Lastname is required";
-        assert booking.getTotalprice() >= 0 : 
-            "Totalprice must be non-negative";
-        assert booking.getDepositpaid() != null : 
-            "Depositpaid is required";
-        assert booking.getBookingdates() != null : 
-            "Bookingdates is required";
-        assert booking.getBookingdates().getCheckin() != null : 
-            "Checkin date is required";
-        assert booking.getBookingdates().getCheckout() != null : 
-            "Checkout date is required";
-        
-        log.info("Input validation passed for: {}", description);
+
+        // Negative cases are expected to omit fields, so only report what is missing
+        for (String field : new String[] {"firstname", "lastname", "totalprice", "depositpaid", "bookingdates"}) {
+            if (!data.hasNonNull(field)) {
+                log.info("Input for {} has no '{}' field", description, field);
+            }
+        }
+    }
+
+    protected JsonNode readBody(BookingResult result) {
+        try {
+            return objectMapper.readTree(result.getBody());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to parse response body", e);
+        }
     }
 
     // Test data providers
@@ -121,80 +120,71 @@ public class BaseBookingTest {
         };
     }
 
-    @DataProvider(name = "invalidBookingData")
-    public Object[][] provideInvalidBookingData() {
-        return new Object[][] {
-            {createInvalidBooking(null, "Doe")},
-            {createInvalidBooking("John", null)},
-            {createInvalidBooking("", "Doe")},
-            {createInvalidBooking("John", "")}
-        };
-    }
-
-    @DataProvider(name = "securityTestData")
-    public Object[][] provideSecurityTestData() {
-        return new Object[][] {
-            {createSecurityTestBooking("<script>alert('xss')</script>", "Doe")},
-            {createSecurityTestBooking("John", "'; DROP TABLE bookings; --")},
-            {createSecurityTestBooking("John", "OR '1'='1")}
-        };
-    }
-
     // Helper methods for creating test data
     protected Booking createValidBooking(String firstname, String lastname) {
-        BookingDates dates = new BookingDates();
-        dates.setCheckin("2024-01-01");
-        dates.setCheckout("2024-01-05");
-        
-        Booking booking = new Booking();
-        booking.setFirstname(firstname);
-        booking.setLastname(lastname);
-        booking.setTotalprice(100);
-        booking.setDepositpaid(true);
-        booking.setBookingdates(dates);
-        booking.setAdditionalneeds("Breakfast");
-        
-        return booking;
-    }
-
-    protected Booking createInvalidBooking(String firstname, String lastname) {
-        Booking booking = new Booking();
-        booking.setFirstname(firstname);
-        booking.setLastname(lastname);
-        // Other fields are intentionally left null/invalid
-        return booking;
+        return Booking.builder()
+                .firstName(firstname)
+                .lastName(lastname)
+                .totalPrice(100)
+                .depositPaid(true)
+                .bookingDates(new Booking.BookingDates("2024-01-01", "2024-01-05"))
+                .additionalNeeds("Breakfast")
+                .build();
     }
 
     protected Booking createSecurityTestBooking(String firstname, String lastname) {
-        BookingDates dates = new BookingDates();
-        dates.setCheckin("2024-01-01");
-        dates.setCheckout("2024-01-05");
-        
-        Booking booking = new Booking();
-        booking.setFirstname(firstname);
-        booking.setLastname(lastname);
-        booking.setTotalprice(100);
-        booking.setDepositpaid(true);
-        booking.setBookingdates(dates);
-        booking.setAdditionalneeds("Security Test");
-        
-        return booking;
+        return Booking.builder()
+                .firstName(firstname)
+                .lastName(lastname)
+                .totalPrice(100)
+                .depositPaid(true)
+                .bookingDates(new Booking.BookingDates("2024-01-01", "2024-01-05"))
+                .additionalNeeds("Security Test")
+                .build();
     }
 
     // Context management methods
+    protected TestContext invocationContext() {
+        TestContext context = invocationContext.get();
+        if (context == null) {
+            throw new IllegalStateException("No invocation context; called outside a test method?");
+        }
+        return context;
+    }
+
+    protected TestContext flowContext(String flow) {
+        return flowContexts.computeIfAbsent(flow, name -> new TestContext(getClass().getSimpleName() + "/" + name));
+    }
+
     protected void storeInContext(String key, Object value) {
-        testContext.put(key, value);
+        invocationContext().put(key, value);
         log.debug("Stored in context - Key: {}, Value: {}", key, value);
     }
 
     protected Object getFromContext(String key) {
-        Object value = testContext.get(key);
+        Object value = invocationContext().get(key, Object.class);
         log.debug("Retrieved from context - Key: {}, Value: {}", key, value);
         return value;
     }
 
     protected void clearContext() {
-        testContext.clear();
+        invocationContext().clear();
         log.debug("Cleared test context");
     }
-}
\ No newline at end of file
+
+    protected void storeBookingId(String flow, int bookingId) {
+        flowContext(flow).put("bookingId", bookingId);
+    }
+
+    protected int getStoredBookingId(String flow) {
+        return flowContext(flow).require("bookingId", Integer.class);
+    }
+
+    protected void storeBookingData(String flow, JsonNode bookingData) {
+        flowContext(flow).put("bookingData", bookingData);
+    }
+
+    protected JsonNode getStoredBookingData(String flow) {
+        return flowContext(flow).require("bookingData", JsonNode.class);
+    }
+}
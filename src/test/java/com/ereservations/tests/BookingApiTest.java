@@ -1,92 +1,101 @@
 package com.ereservations.tests;
 
-import com.ereservations.api.BookingApiClient;
+import com.ereservations.models.Booking;
+import com.ereservations.models.BookingQuery;
+import com.ereservations.models.BookingResult;
 import com.ereservations.utils.TestDataProvider;
 import com.fasterxml.jackson.databind.JsonNode;
-import io.restassured.response.Response;
 import lombok.extern.slf4j.Slf4j;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
 @Slf4j
 public class BookingApiTest extends BaseBookingTest {
+    // The CRUD tests below form one dependent chain sharing a single booking
+    private static final String CRUD_FLOW = "crud";
 
     @Test(description = "Create a new booking and store its ID", groups = {"sanity", "smoke"}, priority = 1)
     public void testCreateBooking() {
         log.info("Creating a new booking");
         JsonNode bookingData = TestDataProvider.getValidBookingData();
-        Response response = apiClient.createBooking(bookingData).getLastResponse();
+        BookingResult response = apiClient.createBooking(bookingData);
         
         validateResponse(response, 200, "Create Booking");
         validateSecurity(response, "Create Booking");
         
-        int bookingId = response.jsonPath().getInt("bookingid");
+        int bookingId = response.getBookingId();
         Assert.assertTrue(bookingId > 0, "Booking ID should be positive");
         
         // Store booking data and ID for subsequent tests
-        storeBookingId(bookingId);
-        storeBookingData(bookingData);
+        storeBookingId(CRUD_FLOW, bookingId);
+        storeBookingData(CRUD_FLOW, bookingData);
         log.info("Created booking with ID: {}", bookingId);
     }
 
     @Test(dependsOnMethods = "testCreateBooking", description = "Get all booking IDs", groups = {"sanity", "smoke"}, priority = 2)
     public void testGetBookingIds() {
         log.info("Getting all booking IDs");
-        Response response = apiClient.getBookingIds().getLastResponse();
+        BookingResult response = apiClient.getBookingIds();
         
         validateResponse(response, 200, "Get Booking IDs");
         validateSecurity(response, "Get Booking IDs");
         
-        int storedBookingId = getStoredBookingId();
-        Assert.assertTrue(response.jsonPath().getList("bookingid").contains(storedBookingId),
-            "Created booking ID should be in the list");
+        int storedBookingId = getStoredBookingId(CRUD_FLOW);
+        JsonNode storedData = getStoredBookingData(CRUD_FLOW);
+        BookingQuery byName = BookingQuery.builder()
+                .firstName(storedData.get("firstname").asText())
+                .lastName(storedData.get("lastname").asText())
+                .build();
+        Assert.assertTrue(apiClient.streamBookingIds(byName).anyMatch(id -> id == storedBookingId),
+                "Created booking ID should be in the list filtered by its name");
         log.info("Verified booking ID {} exists in the list", storedBookingId);
     }
 
     @Test(dependsOnMethods = "testGetBookingIds", description = "Get specific booking details", groups = {"sanity", "smoke"}, priority = 3)
     public void testGetBooking() {
-        int bookingId = getStoredBookingId();
+        int bookingId = getStoredBookingId(CRUD_FLOW);
         log.info("Getting booking details for ID: {}", bookingId);
         
-        Response response = apiClient.getBooking(bookingId).getLastResponse();
+        BookingResult response = apiClient.getBooking(bookingId);
         validateResponse(response, 200, "Get Booking");
         validateSecurity(response, "Get Booking");
         
-        JsonNode storedData = getStoredBookingData();
-        Assert.assertEquals(response.jsonPath().getString("firstname"), 
+        JsonNode storedData = getStoredBookingData(CRUD_FLOW);
+        Booking booking = response.getBooking();
+        Assert.assertEquals(booking.getFirstName(), 
             storedData.get("firstname").asText(), "Firstname should match");
-        Assert.assertEquals(response.jsonPath().getString("lastname"), 
+        Assert.assertEquals(booking.getLastName(), 
             storedData.get("lastname").asText(), "Lastname should match");
         log.info("Verified booking details match for ID: {}", bookingId);
     }
 
     @Test(dependsOnMethods = "testGetBooking", description = "Update booking details", groups = {"sanity", "smoke"}, priority = 4)
     public void testUpdateBooking() {
-        int bookingId = getStoredBookingId();
+        int bookingId = getStoredBookingId(CRUD_FLOW);
         log.info("Updating booking with ID: {}", bookingId);
         
         JsonNode updatedData = TestDataProvider.getValidBookingData();
-        Response response = apiClient.updateBooking(bookingId, updatedData).getLastResponse();
+        BookingResult response = apiClient.updateBooking(bookingId, updatedData);
         
         validateResponse(response, 200, "Update Booking");
         validateSecurity(response, "Update Booking");
         
         // Store updated data
-        storeBookingData(updatedData);
+        storeBookingData(CRUD_FLOW, updatedData);
         log.info("Updated booking with ID: {}", bookingId);
     }
 
     @Test(dependsOnMethods = "testUpdateBooking", description = "Delete booking", groups = {"sanity", "smoke"}, priority = 5)
     public void testDeleteBooking() {
-        int bookingId = getStoredBookingId();
+        int bookingId = getStoredBookingId(CRUD_FLOW);
         log.info("Deleting booking with ID: {}", bookingId);
         
-        Response response = apiClient.deleteBooking(bookingId).getLastResponse();
+        BookingResult response = apiClient.deleteBooking(bookingId);
         validateResponse(response, 201, "Delete Booking");
         validateSecurity(response, "Delete Booking");
         
         // Verify booking is deleted
-        Response getResponse = apiClient.getBooking(bookingId).getLastResponse();
+        BookingResult getResponse = apiClient.getBooking(bookingId, 404);
         validateResponse(getResponse, 404, "Get Deleted Booking");
         log.info("Successfully deleted booking with ID: {}", bookingId);
     }
@@ -0,0 +1,52 @@
+package com.ereservations.tests;
+
+import com.ereservations.api.AsyncBookingApiClient;
+import com.ereservations.data.BookingDataGenerator;
+import com.ereservations.data.MappedBookingFile;
+import com.ereservations.models.Booking;
+import com.ereservations.models.BulkResult;
+import lombok.extern.slf4j.Slf4j;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Bulk create/delete round trip. Bookings are streamed from {@code -Dbooking.data.file} through a
+ * memory-mapped reader when set, otherwise from a seeded generator, so the payloads vary per row.
+ */
+@Slf4j
+public class BookingBulkTest {
+
+    private static final int BULK_SIZE = Integer.getInteger("bulk.size", 50);
+    private static final long DATA_SEED = Long.getLong("booking.data.seed", 42L);
+
+    private final AsyncBookingApiClient apiClient = new AsyncBookingApiClient();
+
+    @Test(description = "Create and delete a batch of generated bookings")
+    public void testBulkCreateAndDelete() throws IOException {
+        String dataFile = System.getProperty("booking.data.file");
+        BulkResult created;
+        if (dataFile != null) {
+            try (MappedBookingFile file = new MappedBookingFile(Paths.get(dataFile))) {
+                created = apiClient.createBookings(file.bookings().limit(BULK_SIZE));
+            }
+        } else {
+            Stream<Booking> bookings = new BookingDataGenerator(DATA_SEED).stream(BULK_SIZE);
+            created = apiClient.createBookings(bookings);
+        }
+        log.info("Created {} bookings at {} req/s", created.getSuccessCount(), created.getThroughputPerSecond());
+        Assert.assertEquals(created.getFailureCount(), 0, "All bulk creates should succeed");
+
+        int[] bookingIds = created.getItems().stream()
+                .map(BulkResult.Item::getBookingId)
+                .filter(Objects::nonNull)
+                .mapToInt(Integer::intValue)
+                .toArray();
+        BulkResult deleted = apiClient.deleteBookings(bookingIds);
+        Assert.assertEquals(deleted.getFailureCount(), 0, "All bulk deletes should succeed");
+    }
+}
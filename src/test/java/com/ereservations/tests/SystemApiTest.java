@@ -1,7 +1,7 @@
 package com.ereservations.tests;
 
 import com.ereservations.api.SystemApiClient;
-import io.restassured.response.Response;
+import com.ereservations.models.ApiResult;
 import lombok.extern.slf4j.Slf4j;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -14,7 +14,7 @@ public class SystemApiTest {
     @Test(description = "Test API availability using ping endpoint")
     public void testPing() {
         log.info("Testing API ping endpoint");
-        Response response = apiClient.ping();
+        ApiResult response = apiClient.ping();
         Assert.assertEquals(response.getStatusCode(), 201, "Ping endpoint should return 201");
         log.info("Ping test completed successfully");
     }
@@ -22,7 +22,7 @@ public class SystemApiTest {
     @Test(description = "Test API health status")
     public void testHealth() {
         log.info("Testing API health endpoint");
-        Response response = apiClient.health();
+        ApiResult response = apiClient.health();
         Assert.assertEquals(response.getStatusCode(), 201, "Health endpoint should return 201");
         log.info("Health test completed successfully");
     }
@@ -0,0 +1,47 @@
+package com.ereservations.utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Named key/value store for state shared between test steps. Instances are scoped by the owner
+ * (a test instance, a single data-provider row or a chain of dependent tests), never globally, so
+ * tests running in parallel cannot overwrite each other's values.
+ */
+public class TestContext {
+    private final String name;
+    private final Map<String, Object> values = new ConcurrentHashMap<>();
+
+    public TestContext(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void put(String key, Object value) {
+        values.put(key, value);
+    }
+
+    public <T> T get(String key, Class<T> type) {
+        return type.cast(values.get(key));
+    }
+
+    public <T> T require(String key, Class<T> type) {
+        Object value = values.get(key);
+        if (value == null) {
+            throw new IllegalStateException("No '" + key + "' stored in test context " + name);
+        }
+        return type.cast(value);
+    }
+
+    public void clear() {
+        values.clear();
+    }
+
+    @Override
+    public String toString() {
+        return name + values;
+    }
+}
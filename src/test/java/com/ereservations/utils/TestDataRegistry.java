@@ -0,0 +1,196 @@
+package com.ereservations.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Loads each file under {@code test-data/} from the classpath once and shares the parsed result.
+ * Documents and their cases are built at load time and never change afterwards, so any number of
+ * data-provider threads can read them concurrently. {@link JsonNode}s are handed out as deep copies,
+ * so a test that edits its payload cannot leak the change into other tests. With
+ * {@code -Dtest.data.reload=true} files are read from {@code src/test/resources} rather than the
+ * copies Maven puts under {@code target/test-classes}, and a file whose timestamp changed is parsed
+ * again on next access, which is handy while editing data locally.
+ */
+@Slf4j
+public final class TestDataRegistry {
+    private static final String TEST_DATA_ROOT = "test-data/";
+    private static final Path CLASSES_DIR = Paths.get("target", "test-classes");
+    private static final Path SOURCES_DIR = Paths.get("src", "test", "resources");
+    private static final boolean RELOAD = Boolean.getBoolean("test.data.reload");
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final ConcurrentMap<String, DataFile> files = new ConcurrentHashMap<>();
+
+    private TestDataRegistry() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static JsonNode tree(String fileName) {
+        return get(fileName).root.deepCopy();
+    }
+
+    public static byte[] bytes(String fileName) {
+        return get(fileName).bytes.clone();
+    }
+
+    public static List<TestCase> cases(String fileName, String category) {
+        return get(fileName).cases.getOrDefault(category, Collections.emptyList());
+    }
+
+    private static DataFile get(String fileName) {
+        DataFile file = files.computeIfAbsent(fileName, TestDataRegistry::load);
+        if (RELOAD && file.isStale()) {
+            log.info("Reloading changed test data file {}", fileName);
+            file = files.compute(fileName, (name, current) -> current != null && !current.isStale() ? current : load(name));
+        }
+        return file;
+    }
+
+    private static DataFile load(String fileName) {
+        String resource = TEST_DATA_ROOT + fileName;
+        URL url = TestDataRegistry.class.getClassLoader().getResource(resource);
+        if (url == null) {
+            throw new IllegalArgumentException("Test data file not found on classpath: " + resource);
+        }
+        Path path = localPath(url);
+        if (RELOAD && path != null) {
+            path = sourcePath(path);
+        }
+        try (InputStream input = path != null ? Files.newInputStream(path) : url.openStream()) {
+            byte[] bytes = input.readAllBytes();
+            return new DataFile(path, bytes, objectMapper.readTree(bytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load test data file " + resource, e);
+        }
+    }
+
+    private static Path localPath(URL url) {
+        if (!"file".equals(url.getProtocol())) {
+            return null;
+        }
+        try {
+            return Paths.get(url.toURI());
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    // The file under src/test/resources that the build copied to target/test-classes, if it exists
+    private static Path sourcePath(Path path) {
+        Path absolute = path.toAbsolutePath().normalize();
+        for (Path dir = absolute.getParent(); dir != null; dir = dir.getParent()) {
+            if (dir.endsWith(CLASSES_DIR)) {
+                Path source = dir.getParent().getParent().resolve(SOURCES_DIR).resolve(dir.relativize(absolute));
+                return Files.isRegularFile(source) ? source : path;
+            }
+        }
+        return path;
+    }
+
+    private static long lastModified(Path path) {
+        try {
+            return path == null ? 0L : Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    /**
+     * One data-driven case: the request payload both as a tree and pre-serialized, plus the status
+     * code the API is expected to return.
+     */
+    public static final class TestCase {
+        private final String description;
+        private final JsonNode data;
+        private final byte[] dataBytes;
+        private final int expectedStatusCode;
+
+        TestCase(String description, JsonNode data, byte[] dataBytes, int expectedStatusCode) {
+            this.description = description;
+            this.data = data;
+            this.dataBytes = dataBytes;
+            this.expectedStatusCode = expectedStatusCode;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public JsonNode getData() {
+            return data == null ? null : data.deepCopy();
+        }
+
+        public byte[] getDataBytes() {
+            return dataBytes.clone();
+        }
+
+        public int getExpectedStatusCode() {
+            return expectedStatusCode;
+        }
+
+        public Object[] toRow() {
+            return new Object[] {description, getData(), expectedStatusCode};
+        }
+    }
+
+    private static final class DataFile {
+        private final Path path;
+        private final long lastModified;
+        private final byte[] bytes;
+        private final JsonNode root;
+        private final Map<String, List<TestCase>> cases;
+
+        DataFile(Path path, byte[] bytes, JsonNode root) throws IOException {
+            this.path = path;
+            this.lastModified = lastModified(path);
+            this.bytes = bytes;
+            this.root = root;
+            this.cases = Collections.unmodifiableMap(indexCases(root));
+        }
+
+        boolean isStale() {
+            return path != null && lastModified(path) != lastModified;
+        }
+
+        // Any top-level array of {description, data, expectedStatusCode} objects is a case category
+        private static Map<String, List<TestCase>> indexCases(JsonNode root) throws IOException {
+            Map<String, List<TestCase>> categories = new LinkedHashMap<>();
+            if (!root.isObject()) {
+                return categories;
+            }
+            for (Map.Entry<String, JsonNode> category : (Iterable<Map.Entry<String, JsonNode>>) root::fields) {
+                if (!category.getValue().isArray()) {
+                    continue;
+                }
+                List<TestCase> cases = new ArrayList<>();
+                for (JsonNode testCase : category.getValue()) {
+                    JsonNode data = testCase.get("data");
+                    cases.add(new TestCase(
+                            testCase.path("description").asText(),
+                            data,
+                            objectMapper.writeValueAsBytes(data),
+                            testCase.path("expectedStatusCode").asInt()));
+                }
+                categories.put(category.getKey(), Collections.unmodifiableList(cases));
+            }
+            return categories;
+        }
+    }
+}
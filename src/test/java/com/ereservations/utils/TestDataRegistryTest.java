@@ -0,0 +1,51 @@
+package com.ereservations.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+/**
+ * Unit tests for the shared test data registry: files are indexed into case categories, and every
+ * tree handed out is a copy, so a test that edits its payload does not affect other tests.
+ */
+public class TestDataRegistryTest {
+
+    private static final String NEGATIVE_DATA = "negative-test-data.json";
+
+    @Test(description = "Top-level arrays of cases are indexed by category")
+    public void testIndexesCases() {
+        List<TestDataRegistry.TestCase> cases = TestDataRegistry.cases(NEGATIVE_DATA, "invalidBookingData");
+
+        Assert.assertEquals(cases.size(), 3, "Cases in the category");
+        Assert.assertEquals(cases.get(0).getDescription(), "Missing required fields", "First case");
+        Assert.assertEquals(cases.get(0).getExpectedStatusCode(), 400, "Expected status code");
+        Assert.assertEquals(cases.get(0).toRow().length, 3, "Data provider row length");
+        Assert.assertTrue(TestDataRegistry.cases(NEGATIVE_DATA, "noSuchCategory").isEmpty(), "Cases in a missing category");
+    }
+
+    @Test(description = "Editing a handed-out tree or case payload does not change what later callers get")
+    public void testHandsOutCopies() {
+        ObjectNode tree = (ObjectNode) TestDataRegistry.tree("create_booking.json");
+        tree.put("firstname", "Edited");
+        Assert.assertEquals(TestDataRegistry.tree("create_booking.json").path("firstname").asText(), "John",
+                "First name after editing an earlier copy");
+
+        TestDataRegistry.TestCase testCase = TestDataRegistry.cases(NEGATIVE_DATA, "invalidBookingData").get(0);
+        ((ObjectNode) testCase.getData()).remove("lastname");
+        ((ObjectNode) testCase.toRow()[1]).remove("firstname");
+        JsonNode data = testCase.getData();
+        Assert.assertTrue(data.has("firstname") && data.has("lastname"), "Case payload after editing copies: " + data);
+
+        byte[] bytes = TestDataRegistry.bytes("create_booking.json");
+        bytes[0] = 'x';
+        Assert.assertEquals(TestDataRegistry.bytes("create_booking.json")[0], (byte) '{', "First byte after editing a copy");
+    }
+
+    @Test(description = "A missing file fails fast", expectedExceptions = IllegalArgumentException.class)
+    public void testMissingFile() {
+        TestDataRegistry.tree("no-such-file.json");
+    }
+}